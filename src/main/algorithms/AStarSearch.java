@@ -0,0 +1,160 @@
+package main.algorithms;
+
+import main.model.GraphSnapshot;
+import main.model.Network;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Búsqueda A* de ruta más corta entre dos nodos. La heurística es la distancia
+ * euclidiana al destino multiplicada por la menor latencia por píxel de las
+ * aristas, que nunca sobreestima la latencia restante
+ */
+public class AStarSearch {
+    private final GraphSnapshot graph;
+    private final double[] x;
+    private final double[] y;
+    private final double latencyPerPixel;
+    
+    private final int[] distances;
+    private final int[] parents;
+    private final IndexedMinHeap heap;
+    private int settledCount;
+    private int lastDistance = DistanceMatrix.INFINITY;
+    
+    public AStarSearch(Network network) {
+        this(network.snapshot());
+    }
+    
+    public AStarSearch(GraphSnapshot graph) {
+        this.graph = graph;
+        int n = graph.getNodeCount();
+        
+        // Las posiciones se leen una sola vez para que la cota sea coherente con ellas
+        x = new double[n];
+        y = new double[n];
+        for (int i = 0; i < n; i++) {
+            Point position = graph.getNode(i).getPosition();
+            x[i] = position.x;
+            y[i] = position.y;
+        }
+        latencyPerPixel = computeLatencyPerPixel();
+        
+        distances = new int[n];
+        parents = new int[n];
+        heap = new IndexedMinHeap(n);
+    }
+    
+    /**
+     * Menor latencia / longitud euclidiana entre todas las aristas.
+     * Por desigualdad triangular, ratio * distancia(v, destino) es una cota inferior
+     */
+    private double computeLatencyPerPixel() {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] latencies = graph.getLatencies();
+        
+        double ratio = Double.POSITIVE_INFINITY;
+        for (int u = 0; u < graph.getNodeCount(); u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                double length = Math.hypot(x[u] - x[targets[e]], y[u] - y[targets[e]]);
+                
+                // Una arista de longitud cero no limita la cota
+                if (length > 0) {
+                    ratio = Math.min(ratio, latencies[e] / length);
+                }
+            }
+        }
+        return ratio == Double.POSITIVE_INFINITY ? 0 : ratio;
+    }
+    
+    /**
+     * Cota inferior entera de la latencia de v al destino. Truncar mantiene la
+     * heurística admisible y consistente porque las latencias son enteras
+     */
+    private int heuristic(int v, int target) {
+        return (int) (latencyPerPixel * Math.hypot(x[v] - x[target], y[v] - y[target]));
+    }
+    
+    /**
+     * Obtiene la ruta más corta entre dos nodos, o null si no existe. Como en
+     * FloydWarshall.getShortestPath, también es null si origen y destino coinciden
+     * (la distancia queda en 0)
+     */
+    public List<Integer> findPath(int fromNodeId, int toNodeId) {
+        int source = graph.indexOf(fromNodeId);
+        int target = graph.indexOf(toNodeId);
+        settledCount = 0;
+        lastDistance = DistanceMatrix.INFINITY;
+        if (source < 0 || target < 0) {
+            return null;
+        }
+        if (source == target) {
+            lastDistance = 0;
+            return null;
+        }
+        
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] latencies = graph.getLatencies();
+        
+        Arrays.fill(distances, DistanceMatrix.INFINITY);
+        Arrays.fill(parents, -1);
+        heap.clear();
+        
+        distances[source] = 0;
+        heap.insertOrDecrease(source, heuristic(source, target));
+        
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            settledCount++;
+            
+            // Con heurística consistente el destino queda definitivo al extraerlo
+            if (u == target) {
+                lastDistance = distances[target];
+                return buildPath(target);
+            }
+            
+            int du = distances[u];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                int candidate = du + latencies[e];
+                if (candidate < distances[v]) {
+                    distances[v] = candidate;
+                    parents[v] = u;
+                    heap.insertOrDecrease(v, candidate + heuristic(v, target));
+                }
+            }
+        }
+        return null;
+    }
+    
+    private List<Integer> buildPath(int target) {
+        List<Integer> path = new ArrayList<>();
+        for (int v = target; v >= 0; v = parents[v]) {
+            path.add(graph.idAt(v));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+    
+    /**
+     * Distancia de la última búsqueda, infinito si no hubo ruta
+     */
+    public double getLastDistance() {
+        return lastDistance == DistanceMatrix.INFINITY ? Double.POSITIVE_INFINITY : lastDistance;
+    }
+    
+    /**
+     * Nodos extraídos del montículo en la última búsqueda
+     */
+    public int getSettledCount() { return settledCount; }
+    
+    public double getLatencyPerPixel() { return latencyPerPixel; }
+    
+    public GraphSnapshot getGraph() { return graph; }
+}
\ No newline at end of file
@@ -0,0 +1,159 @@
+package main.algorithms;
+
+import main.model.GraphSnapshot;
+import main.model.Network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Dijkstra bidireccional: avanza desde el origen sobre el grafo y desde el
+ * destino sobre el grafo transpuesto hasta que ambas búsquedas se encuentran
+ */
+public class BidirectionalDijkstra {
+    private final GraphSnapshot graph;
+    
+    // Búsqueda hacia adelante (padre = nodo anterior)
+    private final int[] forwardDistances;
+    private final int[] forwardParents;
+    private final IndexedMinHeap forwardHeap;
+    
+    // Búsqueda hacia atrás (padre = siguiente salto hacia el destino)
+    private final int[] backwardDistances;
+    private final int[] backwardParents;
+    private final IndexedMinHeap backwardHeap;
+    
+    // Mejor camino encontrado hasta ahora y nodo donde se unen ambas mitades
+    private int best;
+    private int meeting;
+    
+    private int settledCount;
+    private int lastDistance = DistanceMatrix.INFINITY;
+    
+    public BidirectionalDijkstra(Network network) {
+        this(network.snapshot());
+    }
+    
+    public BidirectionalDijkstra(GraphSnapshot graph) {
+        this.graph = graph;
+        int n = graph.getNodeCount();
+        forwardDistances = new int[n];
+        forwardParents = new int[n];
+        forwardHeap = new IndexedMinHeap(n);
+        backwardDistances = new int[n];
+        backwardParents = new int[n];
+        backwardHeap = new IndexedMinHeap(n);
+    }
+    
+    /**
+     * Obtiene la ruta más corta entre dos nodos, o null si no existe. Como en
+     * FloydWarshall.getShortestPath, también es null si origen y destino coinciden
+     * (la distancia queda en 0)
+     */
+    public List<Integer> findPath(int fromNodeId, int toNodeId) {
+        int source = graph.indexOf(fromNodeId);
+        int target = graph.indexOf(toNodeId);
+        settledCount = 0;
+        lastDistance = DistanceMatrix.INFINITY;
+        if (source < 0 || target < 0) {
+            return null;
+        }
+        if (source == target) {
+            lastDistance = 0;
+            return null;
+        }
+        
+        reset(forwardDistances, forwardParents, forwardHeap);
+        reset(backwardDistances, backwardParents, backwardHeap);
+        
+        forwardDistances[source] = 0;
+        forwardHeap.insertOrDecrease(source, 0);
+        backwardDistances[target] = 0;
+        backwardHeap.insertOrDecrease(target, 0);
+        
+        best = DistanceMatrix.INFINITY;
+        meeting = -1;
+        
+        // Se detiene cuando ningún camino aún sin ver puede mejorar el mejor encontrado
+        while (!forwardHeap.isEmpty() && !backwardHeap.isEmpty()
+                && forwardHeap.peekKey() + backwardHeap.peekKey() < best) {
+            // Avanzar el lado con la frontera más pequeña
+            if (forwardHeap.size() <= backwardHeap.size()) {
+                settle(forwardHeap, forwardDistances, forwardParents,
+                        graph.getOffsets(), graph.getTargets(), graph.getLatencies(), backwardDistances);
+            } else {
+                settle(backwardHeap, backwardDistances, backwardParents,
+                        graph.getInOffsets(), graph.getInSources(), graph.getInLatencies(), forwardDistances);
+            }
+        }
+        
+        if (meeting < 0) {
+            return null;
+        }
+        lastDistance = best;
+        return buildPath(meeting);
+    }
+    
+    private void reset(int[] distances, int[] parents, IndexedMinHeap heap) {
+        Arrays.fill(distances, DistanceMatrix.INFINITY);
+        Arrays.fill(parents, -1);
+        heap.clear();
+    }
+    
+    /**
+     * Extrae el mínimo de un lado, relaja sus aristas y actualiza el mejor camino
+     * cuando un vecino ya fue alcanzado por la otra búsqueda
+     */
+    private void settle(IndexedMinHeap heap, int[] distances, int[] parents,
+                        int[] offsets, int[] targets, int[] latencies, int[] otherDistances) {
+        int u = heap.poll();
+        settledCount++;
+        
+        int du = distances[u];
+        for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+            int v = targets[e];
+            int candidate = du + latencies[e];
+            if (candidate < distances[v]) {
+                distances[v] = candidate;
+                parents[v] = u;
+                heap.insertOrDecrease(v, candidate);
+            }
+            
+            if (otherDistances[v] != DistanceMatrix.INFINITY && distances[v] + otherDistances[v] < best) {
+                best = distances[v] + otherDistances[v];
+                meeting = v;
+            }
+        }
+    }
+    
+    /**
+     * Une la mitad hacia adelante (origen -> meeting) con la mitad hacia atrás
+     */
+    private List<Integer> buildPath(int meeting) {
+        List<Integer> path = new ArrayList<>();
+        for (int v = meeting; v >= 0; v = forwardParents[v]) {
+            path.add(graph.idAt(v));
+        }
+        Collections.reverse(path);
+        for (int v = backwardParents[meeting]; v >= 0; v = backwardParents[v]) {
+            path.add(graph.idAt(v));
+        }
+        return path;
+    }
+    
+    /**
+     * Distancia de la última búsqueda, infinito si no hubo ruta
+     */
+    public double getLastDistance() {
+        return lastDistance == DistanceMatrix.INFINITY ? Double.POSITIVE_INFINITY : lastDistance;
+    }
+    
+    /**
+     * Nodos asentados por ambas búsquedas en la última consulta
+     */
+    public int getSettledCount() { return settledCount; }
+    
+    public GraphSnapshot getGraph() { return graph; }
+}
\ No newline at end of file
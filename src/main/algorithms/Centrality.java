@@ -0,0 +1,264 @@
+package main.algorithms;
+
+import main.model.GraphSnapshot;
+import main.model.Network;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Métricas de centralidad calculadas con un Dijkstra por origen, en paralelo.
+ * Cada origen aporta cercanía, centralidad armónica, excentricidad y su
+ * contribución a la intermediación de Brandes (supone latencias positivas).
+ * Las distancias solo cuentan pares alcanzables, por lo que las métricas tienen
+ * sentido en redes desconectadas
+ */
+public class Centrality {
+    // Mínimo de orígenes por tarea; cada hoja asigna sus propios arreglos de trabajo
+    private static final int SOURCES_PER_TASK = 16;
+    
+    private final GraphSnapshot graph;
+    private final int n;
+    private int leafSize = SOURCES_PER_TASK;
+    
+    private final double[] closeness;
+    private final double[] harmonic;
+    private final int[] eccentricity;
+    private final int[] reachable;
+    private double[] betweenness;
+    
+    private int radius = -1;
+    private int diameter = -1;
+    private volatile boolean cancelled;
+    
+    public Centrality(Network network) {
+        this(network.snapshot());
+    }
+    
+    public Centrality(GraphSnapshot graph) {
+        this.graph = graph;
+        this.n = graph.getNodeCount();
+        closeness = new double[n];
+        harmonic = new double[n];
+        eccentricity = new int[n];
+        reachable = new int[n];
+        betweenness = new double[n];
+    }
+    
+    /**
+     * Calcula todas las métricas repartiendo los orígenes entre los hilos.
+     * Devuelve false si se canceló antes de terminar
+     */
+    public boolean compute(int parallelism) {
+        if (parallelism <= 1 || n <= SOURCES_PER_TASK) {
+            betweenness = computeSources(0, n);
+        } else {
+            // Unas pocas hojas por hilo bastan para balancear sin multiplicar arreglos de n
+            leafSize = Math.max(SOURCES_PER_TASK, n / (parallelism * 8));
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                betweenness = pool.invoke(new SourceRangeTask(0, n));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        if (cancelled) return false;
+        
+        // Radio y diámetro sobre los nodos que alcanzan al menos a otro
+        radius = -1;
+        diameter = -1;
+        for (int s = 0; s < n; s++) {
+            if (reachable[s] <= 1) continue;
+            radius = radius < 0 ? eccentricity[s] : Math.min(radius, eccentricity[s]);
+            diameter = Math.max(diameter, eccentricity[s]);
+        }
+        return true;
+    }
+    
+    /**
+     * Detiene el cálculo en curso lo antes posible
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+    
+    /**
+     * Procesa los orígenes en [from, to) y devuelve su aporte a la intermediación
+     */
+    private double[] computeSources(int from, int to) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] latencies = graph.getLatencies();
+        int[] inOffsets = graph.getInOffsets();
+        int[] inSources = graph.getInSources();
+        int[] inLatencies = graph.getInLatencies();
+        
+        // Arreglos de trabajo reutilizados entre orígenes
+        int[] distances = new int[n];
+        double[] pathCounts = new double[n];
+        double[] dependency = new double[n];
+        int[] order = new int[n];
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        double[] partial = new double[n];
+        
+        Arrays.fill(distances, DistanceMatrix.INFINITY);
+        
+        for (int s = from; s < to && !cancelled; s++) {
+            distances[s] = 0;
+            pathCounts[s] = 1;
+            heap.insertOrDecrease(s, 0);
+            int settled = 0;
+            
+            // Dijkstra contando caminos más cortos (sigma)
+            while (!heap.isEmpty()) {
+                int u = heap.poll();
+                order[settled++] = u;
+                int du = distances[u];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    int candidate = du + latencies[e];
+                    if (candidate < distances[v]) {
+                        distances[v] = candidate;
+                        pathCounts[v] = pathCounts[u];
+                        heap.insertOrDecrease(v, candidate);
+                    } else if (candidate == distances[v]) {
+                        pathCounts[v] += pathCounts[u];
+                    }
+                }
+            }
+            
+            // Métricas de distancia del origen
+            long sum = 0;
+            double inverseSum = 0;
+            int farthest = 0;
+            for (int i = 1; i < settled; i++) {
+                int d = distances[order[i]];
+                sum += d;
+                inverseSum += d > 0 ? 1.0 / d : 0;
+                farthest = Math.max(farthest, d);
+            }
+            reachable[s] = settled;
+            // Wasserman-Faust: se escala por la fracción alcanzada, así un nodo que solo
+            // llega a un vecino cercano no supera a uno que llega a toda la red
+            closeness[s] = sum > 0 ? ((settled - 1) / (double) (n - 1)) * ((settled - 1) / (double) sum) : 0;
+            harmonic[s] = n > 1 ? inverseSum / (n - 1) : 0;
+            eccentricity[s] = farthest;
+            
+            // Acumulación de dependencias en orden inverso de distancia (Brandes).
+            // Los predecesores de w son los u con d(u) + w(u, w) = d(w)
+            for (int i = settled - 1; i > 0; i--) {
+                int w = order[i];
+                double coefficient = (1 + dependency[w]) / pathCounts[w];
+                for (int e = inOffsets[w]; e < inOffsets[w + 1]; e++) {
+                    int u = inSources[e];
+                    if (distances[u] != DistanceMatrix.INFINITY && distances[u] + inLatencies[e] == distances[w]) {
+                        dependency[u] += pathCounts[u] * coefficient;
+                    }
+                }
+                partial[w] += dependency[w];
+            }
+            
+            // Limpiar solo lo que tocó este origen
+            for (int i = 0; i < settled; i++) {
+                int v = order[i];
+                distances[v] = DistanceMatrix.INFINITY;
+                pathCounts[v] = 0;
+                dependency[v] = 0;
+            }
+        }
+        return partial;
+    }
+    
+    /**
+     * Índices de los k nodos con mayor puntaje, de mayor a menor (empates por índice)
+     */
+    public static int[] topK(double[] scores, int k) {
+        k = Math.max(0, Math.min(k, scores.length));
+        int[] top = new int[k];
+        if (k == 0) return top;
+        int size = 0;
+        
+        // Inserción en un arreglo ordenado de tamaño k: O(n·k) sin objetos
+        for (int i = 0; i < scores.length; i++) {
+            if (size == k && scores[i] <= scores[top[k - 1]]) continue;
+            
+            int pos = size < k ? size++ : k - 1;
+            while (pos > 0 && scores[top[pos - 1]] < scores[i]) {
+                top[pos] = top[pos - 1];
+                pos--;
+            }
+            top[pos] = i;
+        }
+        return top;
+    }
+    
+    public GraphSnapshot getGraph() { return graph; }
+    
+    /**
+     * Cercanía de Wasserman-Faust: (alcanzables - 1) / suma de distancias a los
+     * alcanzables, escalada por (alcanzables - 1) / (n - 1). Con la red fuertemente
+     * conexa coincide con la cercanía clásica
+     */
+    public double[] getCloseness() { return closeness; }
+    
+    /**
+     * Centralidad armónica: promedio de 1/d sobre los otros n-1 nodos
+     */
+    public double[] getHarmonic() { return harmonic; }
+    
+    /**
+     * Mayor distancia desde cada nodo a un nodo alcanzable
+     */
+    public int[] getEccentricity() { return eccentricity; }
+    
+    /**
+     * Nodos alcanzables desde cada nodo, incluyéndolo
+     */
+    public int[] getReachableCounts() { return reachable; }
+    
+    /**
+     * Intermediación de Brandes: número (fraccional) de rutas más cortas que pasan por cada nodo
+     */
+    public double[] getBetweenness() { return betweenness; }
+    
+    /**
+     * Menor excentricidad entre los nodos que alcanzan a otro, -1 si no hay ninguno
+     */
+    public int getRadius() { return radius; }
+    
+    /**
+     * Mayor excentricidad (distancia más larga entre pares alcanzables), -1 si no hay pares
+     */
+    public int getDiameter() { return diameter; }
+    
+    /**
+     * Tarea que divide los orígenes y suma las intermediaciones parciales al unir
+     */
+    private class SourceRangeTask extends RecursiveTask<double[]> {
+        private final int from;
+        private final int to;
+        
+        SourceRangeTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected double[] compute() {
+            if (to - from <= leafSize) {
+                return computeSources(from, to);
+            }
+            int mid = (from + to) >>> 1;
+            SourceRangeTask left = new SourceRangeTask(from, mid);
+            SourceRangeTask right = new SourceRangeTask(mid, to);
+            right.fork();
+            double[] result = left.compute();
+            double[] other = right.join();
+            for (int i = 0; i < n; i++) {
+                result[i] += other[i];
+            }
+            return result;
+        }
+    }
+}
\ No newline at end of file
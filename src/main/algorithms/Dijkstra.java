@@ -0,0 +1,89 @@
+package main.algorithms;
+
+import main.model.GraphSnapshot;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra de un solo origen sobre una vista CSR. Los arreglos de trabajo se
+ * reutilizan entre ejecuciones para no asignar memoria por consulta
+ */
+public class Dijkstra {
+    private final GraphSnapshot graph;
+    private final int[] distances;
+    private final int[] parents;
+    private final int[] settledOrder;
+    private final IndexedMinHeap heap;
+    private int settledCount;
+    
+    public Dijkstra(GraphSnapshot graph) {
+        this.graph = graph;
+        int n = graph.getNodeCount();
+        distances = new int[n];
+        parents = new int[n];
+        settledOrder = new int[n];
+        heap = new IndexedMinHeap(n);
+    }
+    
+    /**
+     * Calcula distancias desde el origen. parents[v] es el nodo anterior a v
+     */
+    public void runFrom(int source) {
+        run(source, graph.getOffsets(), graph.getTargets(), graph.getLatencies());
+    }
+    
+    /**
+     * Calcula distancias hacia el destino sobre el grafo transpuesto.
+     * parents[v] es el siguiente salto de v hacia el destino
+     */
+    public void runTo(int target) {
+        run(target, graph.getInOffsets(), graph.getInSources(), graph.getInLatencies());
+    }
+    
+    private void run(int root, int[] offsets, int[] targets, int[] latencies) {
+        Arrays.fill(distances, DistanceMatrix.INFINITY);
+        Arrays.fill(parents, -1);
+        heap.clear();
+        settledCount = 0;
+        
+        distances[root] = 0;
+        heap.insertOrDecrease(root, 0);
+        
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            settledOrder[settledCount++] = u;
+            int du = distances[u];
+            
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                int candidate = du + latencies[e];
+                if (candidate < distances[v]) {
+                    distances[v] = candidate;
+                    parents[v] = u;
+                    heap.insertOrDecrease(v, candidate);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Distancia calculada para un índice, DistanceMatrix.INFINITY si no es alcanzable
+     */
+    public int getDistance(int index) { return distances[index]; }
+    
+    public int getParent(int index) { return parents[index]; }
+    
+    /**
+     * Número de nodos asentados en la última ejecución
+     */
+    public int getSettledCount() { return settledCount; }
+    
+    /**
+     * Nodos asentados en orden de distancia no decreciente
+     */
+    public int getSettled(int position) { return settledOrder[position]; }
+    
+    // Acceso directo a los resultados (solo lectura)
+    public int[] getDistances() { return distances; }
+    public int[] getParents() { return parents; }
+}
\ No newline at end of file
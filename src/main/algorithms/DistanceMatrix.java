@@ -0,0 +1,375 @@
+package main.algorithms;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Matriz n x n de distancias enteras (ms) y siguiente salto, almacenada por filas.
+ * En modo compacto usa 16 bits por celda para ambas matrices.
+ */
+public class DistanceMatrix {
+    // Centinela de infinito: la suma de dos valores finitos nunca desborda un int
+    public static final int INFINITY = Integer.MAX_VALUE / 2;
+    
+    // Mayor distancia y mayor índice representables en modo compacto
+    public static final int COMPACT_MAX_VALUE = 0xFFFE;
+    private static final char COMPACT_INFINITY = 0xFFFF;
+    private static final char COMPACT_NO_NEXT = 0xFFFF;
+    
+    private int size;
+    private final boolean compact;
+    
+    // Solo uno de los dos pares de arreglos está en uso
+    private int[] distances;
+    private int[] next;
+    private char[] compactDistances;
+    private char[] compactNext;
+    
+    public DistanceMatrix(int size, boolean compact) {
+        long cells = (long) size * size;
+        if (cells > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Red demasiado grande para una matriz completa: " + size + " nodos");
+        }
+        if (compact && size > COMPACT_MAX_VALUE) {
+            throw new IllegalArgumentException("El modo compacto admite hasta " + COMPACT_MAX_VALUE + " nodos");
+        }
+        
+        this.size = size;
+        this.compact = compact;
+        
+        // Inicializar con infinito y sin siguiente salto, 0 en la diagonal
+        if (compact) {
+            compactDistances = new char[(int) cells];
+            compactNext = new char[(int) cells];
+            Arrays.fill(compactDistances, COMPACT_INFINITY);
+            Arrays.fill(compactNext, COMPACT_NO_NEXT);
+        } else {
+            distances = new int[(int) cells];
+            next = new int[(int) cells];
+            Arrays.fill(distances, INFINITY);
+            Arrays.fill(next, -1);
+        }
+        for (int i = 0; i < size; i++) {
+            set(i, i, 0);
+        }
+    }
+    
+    /**
+     * Verifica si cualquier ruta simple del grafo cabe en 16 bits
+     */
+    public static boolean fitsCompact(int nodeCount, int[] latencies) {
+        if (nodeCount > COMPACT_MAX_VALUE) return false;
+        
+        // Cota superior de una ruta simple: suma de aristas o (n-1) veces la mayor
+        long total = 0;
+        long max = 0;
+        for (int latency : latencies) {
+            total += latency;
+            max = Math.max(max, latency);
+        }
+        long bound = Math.min(total, (long) Math.max(0, nodeCount - 1) * max);
+        return bound <= COMPACT_MAX_VALUE;
+    }
+    
+    public int size() { return size; }
+    
+    public boolean isCompact() { return compact; }
+    
+    /**
+     * Distancia entre dos índices, INFINITY si no hay camino
+     */
+    public int get(int i, int j) {
+        if (compact) {
+            char value = compactDistances[i * size + j];
+            return value == COMPACT_INFINITY ? INFINITY : value;
+        }
+        return distances[i * size + j];
+    }
+    
+    /**
+     * Asigna una distancia, saturando a INFINITY
+     */
+    public void set(int i, int j, int value) {
+        if (compact) {
+            compactDistances[i * size + j] = value >= INFINITY ? COMPACT_INFINITY : (char) value;
+        } else {
+            distances[i * size + j] = Math.min(value, INFINITY);
+        }
+    }
+    
+    /**
+     * Siguiente salto desde i hacia j, o -1 si no hay camino
+     */
+    public int getNext(int i, int j) {
+        if (compact) {
+            char value = compactNext[i * size + j];
+            return value == COMPACT_NO_NEXT ? -1 : value;
+        }
+        return next[i * size + j];
+    }
+    
+    public void setNext(int i, int j, int value) {
+        if (compact) {
+            compactNext[i * size + j] = value < 0 ? COMPACT_NO_NEXT : (char) value;
+        } else {
+            next[i * size + j] = value;
+        }
+    }
+    
+    /**
+     * Memoria ocupada por las dos matrices en bytes
+     */
+    public long getMemoryBytes() {
+        long cells = compact ? compactDistances.length : distances.length;
+        return cells * (compact ? 4 : 8);
+    }
+    
+    /**
+     * Elimina la fila y columna del índice x compactando en el mismo arreglo.
+     * Los siguientes saltos mayores que x se desplazan; los que apuntaban a x quedan en -1
+     */
+    public void removeIndex(int x) {
+        int oldSize = size;
+        int newSize = size - 1;
+        
+        // Cada posición nueva es menor o igual que la original, así que copiar hacia adelante es seguro
+        for (int i = 0; i < newSize; i++) {
+            int oldI = i < x ? i : i + 1;
+            for (int j = 0; j < newSize; j++) {
+                int oldJ = j < x ? j : j + 1;
+                int from = oldI * oldSize + oldJ;
+                int to = i * newSize + j;
+                if (compact) {
+                    compactDistances[to] = compactDistances[from];
+                    char hop = compactNext[from];
+                    compactNext[to] = hop == COMPACT_NO_NEXT || hop == x ? COMPACT_NO_NEXT
+                            : hop > x ? (char) (hop - 1) : hop;
+                } else {
+                    distances[to] = distances[from];
+                    int hop = next[from];
+                    next[to] = hop == x ? -1 : hop > x ? hop - 1 : hop;
+                }
+            }
+        }
+        size = newSize;
+    }
+    
+    /**
+     * Actualiza en O(n^2) las rutas tras insertar la arista u -> v con latencia w
+     * (o reducir su latencia). Devuelve false si el resultado no cabe en modo compacto
+     */
+    public boolean relaxEdge(int u, int v, int w) {
+        if (w >= get(u, v)) {
+            return true; // la arista no mejora ninguna ruta
+        }
+        
+        // En modo compacto verificar antes que ninguna nueva distancia desborde
+        if (compact) {
+            long maxToU = 0;
+            long maxFromV = 0;
+            for (int k = 0; k < size; k++) {
+                if (get(k, u) != INFINITY) maxToU = Math.max(maxToU, get(k, u));
+                if (get(v, k) != INFINITY) maxFromV = Math.max(maxFromV, get(v, k));
+            }
+            if (maxToU + w + maxFromV > COMPACT_MAX_VALUE) {
+                return false;
+            }
+        }
+        
+        // La fila v y la columna u no cambian con pesos no negativos
+        for (int i = 0; i < size; i++) {
+            int diu = get(i, u);
+            if (diu == INFINITY) continue;
+            
+            // Solo mejora i -> j si primero mejora i -> v
+            int throughEdge = diu + w;
+            if (throughEdge >= get(i, v)) continue;
+            
+            int firstHop = i == u ? v : getNext(i, u);
+            for (int j = 0; j < size; j++) {
+                int dvj = get(v, j);
+                if (dvj == INFINITY) continue;
+                
+                int candidate = throughEdge + dvj;
+                if (candidate < get(i, j)) {
+                    set(i, j, candidate);
+                    setNext(i, j, firstHop);
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Ejecuta Floyd-Warshall por bloques, en paralelo si parallelism > 1
+     */
+    public void runFloydWarshall(int blockSize, int parallelism) {
+        int blocks = (size + blockSize - 1) / blockSize;
+        
+        if (parallelism > 1 && blocks > 1) {
+            runParallel(blocks, blockSize, parallelism);
+        } else {
+            runSequential(blocks, blockSize);
+        }
+    }
+    
+    /**
+     * Versión secuencial del algoritmo por bloques
+     */
+    private void runSequential(int blocks, int blockSize) {
+        for (int kb = 0; kb < blocks; kb++) {
+            // Fase 1: bloque diagonal
+            relaxBlock(kb, kb, kb, blockSize);
+            
+            // Fase 2: fila y columna del bloque k
+            for (int b = 0; b < blocks; b++) {
+                if (b != kb) {
+                    relaxBlock(kb, b, kb, blockSize);
+                    relaxBlock(b, kb, kb, blockSize);
+                }
+            }
+            
+            // Fase 3: bloques restantes
+            for (int ib = 0; ib < blocks; ib++) {
+                if (ib == kb) continue;
+                for (int jb = 0; jb < blocks; jb++) {
+                    if (jb != kb) {
+                        relaxBlock(ib, jb, kb, blockSize);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Versión paralela: dentro de cada fase los bloques escriben regiones disjuntas
+     * y solo leen bloques ya finalizados, por lo que el resultado es idéntico al secuencial
+     */
+    private void runParallel(int blocks, int blockSize, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (int kb = 0; kb < blocks; kb++) {
+                final int k = kb;
+                
+                // Fase 1: bloque diagonal
+                relaxBlock(k, k, k, blockSize);
+                
+                // Fase 2: fila y columna del bloque k
+                pool.invoke(new BlockRangeTask(0, blocks, b -> {
+                    if (b != k) {
+                        relaxBlock(k, b, k, blockSize);
+                        relaxBlock(b, k, k, blockSize);
+                    }
+                }));
+                
+                // Fase 3: cada tarea procesa una fila de bloques
+                pool.invoke(new BlockRangeTask(0, blocks, ib -> {
+                    if (ib == k) return;
+                    for (int jb = 0; jb < blocks; jb++) {
+                        if (jb != k) {
+                            relaxBlock(ib, jb, k, blockSize);
+                        }
+                    }
+                }));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    /**
+     * Relaja el bloque (ib, jb) usando como intermedios los nodos del bloque kb
+     */
+    private void relaxBlock(int ib, int jb, int kb, int blockSize) {
+        int iStart = ib * blockSize;
+        int iEnd = Math.min(size, iStart + blockSize);
+        int jStart = jb * blockSize;
+        int jEnd = Math.min(size, jStart + blockSize);
+        int kStart = kb * blockSize;
+        int kEnd = Math.min(size, kStart + blockSize);
+        
+        if (compact) {
+            relaxCompact(iStart, iEnd, jStart, jEnd, kStart, kEnd);
+        } else {
+            relaxInt(iStart, iEnd, jStart, jEnd, kStart, kEnd);
+        }
+    }
+    
+    private void relaxInt(int iStart, int iEnd, int jStart, int jEnd, int kStart, int kEnd) {
+        int[] distances = this.distances;
+        int[] next = this.next;
+        int n = size;
+        
+        for (int k = kStart; k < kEnd; k++) {
+            int kRow = k * n;
+            for (int i = iStart; i < iEnd; i++) {
+                int iRow = i * n;
+                int dik = distances[iRow + k];
+                
+                // Sin camino i -> k no hay nada que mejorar en esta fila
+                if (dik == INFINITY) continue;
+                
+                int nik = next[iRow + k];
+                for (int j = jStart; j < jEnd; j++) {
+                    int candidate = dik + distances[kRow + j];
+                    if (candidate < distances[iRow + j]) {
+                        distances[iRow + j] = candidate;
+                        next[iRow + j] = nik;
+                    }
+                }
+            }
+        }
+    }
+    
+    private void relaxCompact(int iStart, int iEnd, int jStart, int jEnd, int kStart, int kEnd) {
+        char[] distances = this.compactDistances;
+        char[] next = this.compactNext;
+        int n = size;
+        
+        for (int k = kStart; k < kEnd; k++) {
+            int kRow = k * n;
+            for (int i = iStart; i < iEnd; i++) {
+                int iRow = i * n;
+                int dik = distances[iRow + k];
+                if (dik == COMPACT_INFINITY) continue;
+                
+                // Infinito (0xFFFF) más cualquier dik supera todo valor almacenable
+                char nik = next[iRow + k];
+                for (int j = jStart; j < jEnd; j++) {
+                    int candidate = dik + distances[kRow + j];
+                    if (candidate < distances[iRow + j]) {
+                        distances[iRow + j] = (char) candidate;
+                        next[iRow + j] = nik;
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Tarea que divide un rango de índices de bloque entre los hilos del pool
+     */
+    private static class BlockRangeTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final IntConsumer action;
+        
+        BlockRangeTask(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                action.accept(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BlockRangeTask(from, mid, action), new BlockRangeTask(mid, to, action));
+        }
+    }
+}
\ No newline at end of file
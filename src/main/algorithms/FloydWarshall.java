@@ -1,123 +1,712 @@
 package main.algorithms;
 
+import main.model.GraphSnapshot;
 import main.model.Network;
-import main.model.Node;
-import main.model.Connection;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
- * Implementación del algoritmo Floyd-Warshall para encontrar rutas más cortas
+ * Implementación del algoritmo Floyd-Warshall para encontrar rutas más cortas.
+ * En redes dispersas puede delegar en Dijkstra desde cada origen
  */
 public class FloydWarshall {
-    private Network network;
-    private double[][] distances;
-    private int[][] next;
-    private Map<Integer, Integer> nodeToIndex;
-    private Map<Integer, Integer> indexToNode;
+    // Tamaño de bloque por defecto: tres bloques de 64x64 enteros caben holgadamente en L2
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+    
+    // Con AUTO se usa Dijkstra por origen si |E|/|V|^2 · log2|V| queda bajo este umbral
+    public static final double SPARSE_THRESHOLD = 3.0;
+    
+    // Componentes con al menos estos nodos se calculan solas con todo el paralelismo
+    private static final int LARGE_COMPONENT_SIZE = 256;
+    
+    /**
+     * Motor usado para calcular todas las rutas
+     */
+    public enum Algorithm {
+        AUTO,
+        FLOYD_WARSHALL,
+        DIJKSTRA_PER_SOURCE
+    }
+    
+    private GraphSnapshot graph;
+    private Algorithm algorithm;
+    private Algorithm lastAlgorithm;
+    private int n;
+    private int blockSize;
+    private int parallelism;
+    private boolean compactRequested;
+    private boolean computed;
+    
+    // Distancias enteras y siguiente salto; se crean al primer uso
+    private DistanceMatrix matrix;
+    
+    // Modo por componentes: matriz diagonal por bloques, una sub-instancia por
+    // componente débil (null si tiene un solo nodo). members[c][local] es el índice global
+    private boolean componentModeRequested;
+    private FloydWarshall[] components;
+    private int[][] members;
+    private int[] componentOf;
+    private int[] localIndex;
+    
+    // Copias bidimensionales para la interfaz, se generan bajo demanda
+    private double[][] distanceMatrixView;
+    private int[][] nextMatrixView;
     
     public FloydWarshall(Network network) {
-        this.network = network;
-        initialize();
+        this(network.snapshot());
+    }
+    
+    public FloydWarshall(GraphSnapshot graph) {
+        this.graph = graph;
+        this.n = graph.getNodeCount();
+        this.blockSize = DEFAULT_BLOCK_SIZE;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.algorithm = Algorithm.FLOYD_WARSHALL;
     }
     
     /**
      * Inicializa las matrices para el algoritmo
      */
     private void initialize() {
-        List<Node> activeNodes = network.getActiveNodes();
-        int n = activeNodes.size();
+        boolean compact = compactRequested && DistanceMatrix.fitsCompact(n, graph.getLatencies());
+        matrix = new DistanceMatrix(n, compact);
         
-        // Crear mapeo de IDs a índices
-        nodeToIndex = new HashMap<>();
-        indexToNode = new HashMap<>();
-        for (int i = 0; i < activeNodes.size(); i++) {
-            Node node = activeNodes.get(i);
-            nodeToIndex.put(node.getId(), i);
-            indexToNode.put(i, node.getId());
+        // Llenar con las conexiones existentes
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] latencies = graph.getLatencies();
+        for (int i = 0; i < n; i++) {
+            for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+                matrix.set(i, targets[e], latencies[e]);
+                matrix.setNext(i, targets[e], targets[e]);
+            }
         }
         
-        // Inicializar matrices
-        distances = new double[n][n];
-        next = new int[n][n];
+        distanceMatrixView = null;
+        nextMatrixView = null;
+    }
+    
+    /**
+     * Devuelve la matriz, creándola con las aristas directas si aún no existe
+     */
+    private DistanceMatrix matrix() {
+        if (matrix == null) {
+            initialize();
+        }
+        return matrix;
+    }
+    
+    /**
+     * Ejecuta el algoritmo Floyd-Warshall por bloques
+     */
+    public void execute() {
+        components = null;
+        if (componentModeRequested && executeByComponents()) {
+            computed = true;
+            distanceMatrixView = null;
+            nextMatrixView = null;
+            return;
+        }
         
-        // Inicializar con infinito
-        for (int i = 0; i < n; i++) {
-            Arrays.fill(distances[i], Double.POSITIVE_INFINITY);
-            Arrays.fill(next[i], -1);
+        lastAlgorithm = algorithm == Algorithm.AUTO ? selectAlgorithm(graph) : algorithm;
+        
+        if (lastAlgorithm == Algorithm.DIJKSTRA_PER_SOURCE) {
+            new SparseAllPairs(graph, matrix()).execute(parallelism);
+        } else {
+            matrix().runFloydWarshall(blockSize, parallelism);
         }
+        computed = true;
+        
+        distanceMatrixView = null;
+        nextMatrixView = null;
+    }
+    
+    /**
+     * Calcula cada componente débil por separado si la red está fragmentada.
+     * Devuelve false si hay una sola componente y conviene la matriz completa
+     */
+    private boolean executeByComponents() {
+        int[] labels = new int[n];
+        int count = labelWeakComponents(graph, labels);
+        if (count <= 1) return false;
         
-        // Distancia de un nodo a sí mismo es 0
+        // Agrupar los índices globales de cada componente
+        int[] sizes = new int[count];
         for (int i = 0; i < n; i++) {
-            distances[i][i] = 0;
+            sizes[labels[i]]++;
+        }
+        members = new int[count][];
+        for (int c = 0; c < count; c++) {
+            members[c] = new int[sizes[c]];
+        }
+        int[] fill = new int[count];
+        for (int i = 0; i < n; i++) {
+            members[labels[i]][fill[labels[i]]++] = i;
         }
         
-        // Llenar con las conexiones existentes
-        for (Connection conn : network.getActiveConnections()) {
-            int fromIndex = nodeToIndex.get(conn.getFromNode().getId());
-            int toIndex = nodeToIndex.get(conn.getToNode().getId());
-            distances[fromIndex][toIndex] = conn.getLatency();
-            next[fromIndex][toIndex] = toIndex;
+        components = new FloydWarshall[count];
+        List<Integer> small = new ArrayList<>();
+        int largest = -1;
+        for (int c = 0; c < count; c++) {
+            if (members[c].length < 2) continue;
+            components[c] = createComponent(graph.subgraph(members[c]));
+            if (members[c].length >= LARGE_COMPONENT_SIZE) {
+                // Las grandes se paralelizan por dentro, una tras otra
+                components[c].parallelism = parallelism;
+                components[c].execute();
+            } else {
+                small.add(c);
+            }
+            if (largest < 0 || members[c].length > members[largest].length) {
+                largest = c;
+            }
         }
+        
+        // Las pequeñas se reparten entre los hilos, cada una secuencial
+        int[] pending = small.stream().mapToInt(Integer::intValue).toArray();
+        if (parallelism > 1 && pending.length > 1) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new ComponentRangeTask(pending, 0, pending.length));
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            for (int c : pending) {
+                components[c].execute();
+            }
+        }
+        
+        lastAlgorithm = largest >= 0 ? components[largest].lastAlgorithm : Algorithm.FLOYD_WARSHALL;
+        matrix = null;
+        rebuildComponentIndex();
+        return true;
     }
     
     /**
-     * Ejecuta el algoritmo Floyd-Warshall
+     * Sub-instancia con la misma configuración para una componente
      */
-    public void execute() {
-        int n = distances.length;
+    private FloydWarshall createComponent(GraphSnapshot subgraph) {
+        FloydWarshall component = new FloydWarshall(subgraph);
+        component.algorithm = algorithm;
+        component.blockSize = blockSize;
+        component.compactRequested = compactRequested;
+        component.parallelism = 1;
+        return component;
+    }
+    
+    /**
+     * Recalcula componentOf y localIndex a partir de members
+     */
+    private void rebuildComponentIndex() {
+        componentOf = new int[n];
+        localIndex = new int[n];
+        for (int c = 0; c < members.length; c++) {
+            for (int local = 0; local < members[c].length; local++) {
+                componentOf[members[c][local]] = c;
+                localIndex[members[c][local]] = local;
+            }
+        }
+    }
+    
+    /**
+     * Etiqueta las componentes débilmente conexas (aristas en ambos sentidos) con BFS
+     */
+    private static int labelWeakComponents(GraphSnapshot graph, int[] labels) {
+        int n = graph.getNodeCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] inOffsets = graph.getInOffsets();
+        int[] inSources = graph.getInSources();
+        int[] queue = new int[n];
+        Arrays.fill(labels, -1);
         
-        for (int k = 0; k < n; k++) {
+        int count = 0;
+        for (int root = 0; root < n; root++) {
+            if (labels[root] >= 0) continue;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = root;
+            labels[root] = count;
+            while (head < tail) {
+                int u = queue[head++];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    if (labels[targets[e]] < 0) {
+                        labels[targets[e]] = count;
+                        queue[tail++] = targets[e];
+                    }
+                }
+                for (int e = inOffsets[u]; e < inOffsets[u + 1]; e++) {
+                    if (labels[inSources[e]] < 0) {
+                        labels[inSources[e]] = count;
+                        queue[tail++] = inSources[e];
+                    }
+                }
+            }
+            count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Activa el cálculo por componentes débiles cuando la red está fragmentada.
+     * Las consultas entre componentes distintas responden "sin camino" directamente
+     */
+    public void setComponentMode(boolean enabled) {
+        this.componentModeRequested = enabled;
+        this.components = null;
+        this.computed = false;
+    }
+    
+    /**
+     * Número de bloques de la última ejecución (1 si se usó la matriz completa)
+     */
+    public int getComponentCount() {
+        return components == null ? 1 : components.length;
+    }
+    
+    /**
+     * Distancia entre dos índices, resolviendo el bloque si hay componentes
+     */
+    private int distanceAt(int i, int j) {
+        if (components == null) return matrix().get(i, j);
+        if (i == j) return 0;
+        
+        int c = componentOf[i];
+        if (c != componentOf[j]) return DistanceMatrix.INFINITY;
+        return components[c].matrix().get(localIndex[i], localIndex[j]);
+    }
+    
+    /**
+     * Siguiente salto entre dos índices globales, -1 si no hay camino
+     */
+    private int nextAt(int i, int j) {
+        if (components == null) return matrix().getNext(i, j);
+        
+        int c = componentOf[i];
+        if (i == j || c != componentOf[j]) return -1;
+        int local = components[c].matrix().getNext(localIndex[i], localIndex[j]);
+        return local < 0 ? -1 : members[c][local];
+    }
+    
+    /**
+     * Elige el motor más barato según la densidad |E|/|V|^2 de la red
+     */
+    public static Algorithm selectAlgorithm(GraphSnapshot graph) {
+        int n = graph.getNodeCount();
+        if (n < 2) return Algorithm.FLOYD_WARSHALL;
+        
+        double density = (double) graph.getEdgeCount() / ((double) n * n);
+        double log2 = Math.log(n) / Math.log(2);
+        return density * log2 < SPARSE_THRESHOLD ? Algorithm.DIJKSTRA_PER_SOURCE : Algorithm.FLOYD_WARSHALL;
+    }
+    
+    /**
+     * Fija el motor de cálculo; AUTO lo decide en cada execute()
+     */
+    public void setAlgorithm(Algorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+    
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+    
+    /**
+     * Motor usado en la última ejecución, o null si aún no se ejecutó
+     */
+    public Algorithm getLastAlgorithm() {
+        return lastAlgorithm;
+    }
+    
+    /**
+     * Aplica en O(n^2) una conexión nueva, restaurada o con menor latencia sin recalcular
+     * todo. Devuelve false si el cambio no es incremental y se requiere execute() completo
+     */
+    public boolean applyConnectionUpdate(Network network, int fromNodeId, int toNodeId) {
+        return applyConnectionUpdate(network.snapshot(), fromNodeId, toNodeId);
+    }
+    
+    private boolean applyConnectionUpdate(GraphSnapshot updated, int fromNodeId, int toNodeId) {
+        if (!computed || !hasSameNodes(updated)) return false;
+        
+        int u = updated.indexOf(fromNodeId);
+        int v = updated.indexOf(toNodeId);
+        if (u < 0 || v < 0) return false;
+        
+        if (components != null) {
+            // Una arista entre componentes las fusiona: se requiere recalcular
+            int c = componentOf[u];
+            if (c != componentOf[v]) return false;
+            if (components[c] != null
+                    && !components[c].applyConnectionUpdate(updated.subgraph(members[c]), fromNodeId, toNodeId)) {
+                return false;
+            }
+            graph = updated;
+            distanceMatrixView = null;
+            nextMatrixView = null;
+            return true;
+        }
+        
+        // Solo inserciones o reducciones de latencia son incrementales
+        int latency = updated.getLatency(u, v);
+        int previous = graph.getLatency(u, v);
+        if (latency < 0 || (previous >= 0 && latency > previous)) {
+            return false;
+        }
+        
+        if (!matrix.relaxEdge(u, v, latency)) {
+            return false;
+        }
+        
+        graph = updated;
+        distanceMatrixView = null;
+        nextMatrixView = null;
+        return true;
+    }
+    
+    /**
+     * Repara solo los pares cuya ruta usaba la conexión caída (o que subió de latencia).
+     * Devuelve false si se requiere execute() completo
+     */
+    public boolean applyConnectionFailure(Network network, int fromNodeId, int toNodeId) {
+        return applyConnectionFailure(network.snapshot(), fromNodeId, toNodeId);
+    }
+    
+    private boolean applyConnectionFailure(GraphSnapshot updated, int fromNodeId, int toNodeId) {
+        if (!computed || !hasSameNodes(updated)) return false;
+        
+        int u = graph.indexOf(fromNodeId);
+        int v = graph.indexOf(toNodeId);
+        if (u < 0 || v < 0) return false;
+        
+        if (components != null) {
+            // Si la componente se divide, su bloque sigue siendo válido con pares en infinito
+            int c = componentOf[u];
+            if (c == componentOf[v] && components[c] != null
+                    && !components[c].applyConnectionFailure(updated.subgraph(members[c]), fromNodeId, toNodeId)) {
+                return false;
+            }
+            graph = updated;
+            distanceMatrixView = null;
+            nextMatrixView = null;
+            return true;
+        }
+        if (!fitsMatrix(updated)) return false;
+        
+        repairRoutes(updated, u, v, -1);
+        
+        graph = updated;
+        distanceMatrixView = null;
+        nextMatrixView = null;
+        return true;
+    }
+    
+    /**
+     * Repara solo los pares cuya ruta atravesaba el nodo caído y elimina su fila y columna.
+     * Devuelve false si se requiere execute() completo
+     */
+    public boolean applyNodeFailure(Network network, int nodeId) {
+        return applyNodeFailure(network.snapshot(), nodeId);
+    }
+    
+    private boolean applyNodeFailure(GraphSnapshot updated, int nodeId) {
+        if (!computed) return false;
+        
+        int x = graph.indexOf(nodeId);
+        if (x < 0 || !hasSameNodesExcept(updated, x)) return false;
+        
+        if (components != null) {
+            return applyNodeFailureToComponent(updated, nodeId, x);
+        }
+        if (!fitsMatrix(updated)) return false;
+        
+        repairRoutes(updated, -1, -1, x);
+        matrix.removeIndex(x);
+        
+        graph = updated;
+        n = updated.getNodeCount();
+        distanceMatrixView = null;
+        nextMatrixView = null;
+        return true;
+    }
+    
+    /**
+     * Quita el nodo x de su bloque y reindexa los índices globales posteriores
+     */
+    private boolean applyNodeFailureToComponent(GraphSnapshot updated, int nodeId, int x) {
+        int c = componentOf[x];
+        int[] remaining = new int[members[c].length - 1];
+        int write = 0;
+        for (int member : members[c]) {
+            if (member != x) {
+                remaining[write++] = toUpdatedIndex(member, x);
+            }
+        }
+        
+        if (components[c] != null && !components[c].applyNodeFailure(updated.subgraph(remaining), nodeId)) {
+            return false;
+        }
+        
+        // Los índices globales mayores que x bajan en uno en todos los bloques
+        for (int d = 0; d < members.length; d++) {
+            if (d == c) {
+                members[d] = remaining;
+                continue;
+            }
+            for (int local = 0; local < members[d].length; local++) {
+                members[d][local] = toUpdatedIndex(members[d][local], x);
+            }
+        }
+        if (remaining.length < 2) {
+            components[c] = null;
+        }
+        
+        graph = updated;
+        n = updated.getNodeCount();
+        rebuildComponentIndex();
+        distanceMatrixView = null;
+        nextMatrixView = null;
+        return true;
+    }
+    
+    /**
+     * Recorre cada destino j cuyas rutas pueden usar el elemento caído (arista u -> v
+     * o nodo removed), marca los orígenes afectados siguiendo los siguientes saltos y
+     * recalcula solo esos pares con un Dijkstra inverso desde j sobre la vista nueva
+     */
+    private void repairRoutes(GraphSnapshot updated, int u, int v, int removed) {
+        final int unknown = 0, affected = 1, clean = 2;
+        int[] state = new int[n];
+        int[] chain = new int[n];
+        int[] affectedSources = new int[n];
+        Dijkstra dijkstra = new Dijkstra(updated);
+        
+        for (int j = 0; j < n; j++) {
+            if (j == removed) continue;
+            
+            // Con una arista caída solo importan los destinos a los que u salía por v
+            if (removed < 0 && matrix.getNext(u, j) != v) continue;
+            
+            Arrays.fill(state, unknown);
+            state[j] = clean;
+            state[removed >= 0 ? removed : u] = affected;
+            
+            int affectedCount = 0;
             for (int i = 0; i < n; i++) {
-                for (int j = 0; j < n; j++) {
-                    if (distances[i][k] + distances[k][j] < distances[i][j]) {
-                        distances[i][j] = distances[i][k] + distances[k][j];
-                        next[i][j] = next[i][k];
+                if (i == removed) continue;
+                
+                // Seguir la cadena de siguientes saltos hasta un nodo ya clasificado
+                int length = 0;
+                int current = i;
+                while (state[current] == unknown) {
+                    chain[length++] = current;
+                    current = matrix.getNext(current, j);
+                    if (current < 0) {
+                        current = j; // sin camino: nada que reparar
                     }
                 }
+                int result = state[current];
+                for (int c = 0; c < length; c++) {
+                    state[chain[c]] = result;
+                }
+                if (result == affected) {
+                    affectedSources[affectedCount++] = i;
+                }
+            }
+            if (affectedCount == 0) continue;
+            
+            // Distancias hacia j en la topología nueva
+            dijkstra.runTo(toUpdatedIndex(j, removed));
+            for (int a = 0; a < affectedCount; a++) {
+                int i = affectedSources[a];
+                int newI = toUpdatedIndex(i, removed);
+                int distance = dijkstra.getDistance(newI);
+                matrix.set(i, j, distance);
+                matrix.setNext(i, j, distance == DistanceMatrix.INFINITY ? -1
+                        : toCurrentIndex(dijkstra.getParent(newI), removed));
             }
         }
     }
     
+    private static int toUpdatedIndex(int index, int removed) {
+        return removed >= 0 && index > removed ? index - 1 : index;
+    }
+    
+    private static int toCurrentIndex(int index, int removed) {
+        return removed >= 0 && index >= removed ? index + 1 : index;
+    }
+    
+    /**
+     * Verifica que la vista nueva quepa en el formato de la matriz actual
+     */
+    private boolean fitsMatrix(GraphSnapshot updated) {
+        return !matrix.isCompact() || DistanceMatrix.fitsCompact(updated.getNodeCount(), updated.getLatencies());
+    }
+    
+    /**
+     * Verifica que otra vista tenga los mismos nodos salvo el índice eliminado
+     */
+    private boolean hasSameNodesExcept(GraphSnapshot other, int removed) {
+        if (other.getNodeCount() != n - 1) return false;
+        for (int i = 0; i < n - 1; i++) {
+            if (other.idAt(i) != graph.idAt(toCurrentIndex(i, removed))) return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Verifica que otra vista tenga los mismos nodos activos en el mismo orden
+     */
+    private boolean hasSameNodes(GraphSnapshot other) {
+        if (other.getNodeCount() != n) return false;
+        for (int i = 0; i < n; i++) {
+            if (other.idAt(i) != graph.idAt(i)) return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Ajusta el tamaño de bloque (en nodos) para adaptarlo a la caché disponible
+     */
+    public void setBlockSize(int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser positivo");
+        }
+        this.blockSize = blockSize;
+    }
+    
+    public int getBlockSize() {
+        return blockSize;
+    }
+    
+    /**
+     * Número de hilos usados por execute(); 1 ejecuta la versión secuencial
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("El paralelismo debe ser al menos 1");
+        }
+        this.parallelism = parallelism;
+    }
+    
+    public int getParallelism() {
+        return parallelism;
+    }
+    
+    /**
+     * Solicita matrices de 16 bits cuando la mayor ruta posible cabe en ellas.
+     * Debe llamarse antes de execute(); descarta resultados previos
+     */
+    public void setCompactMode(boolean compact) {
+        this.compactRequested = compact;
+        this.matrix = null;
+        this.components = null;
+        this.computed = false;
+    }
+    
+    /**
+     * Indica si las matrices usan realmente el formato de 16 bits
+     */
+    public boolean isCompact() {
+        if (components == null) return matrix().isCompact();
+        for (FloydWarshall component : components) {
+            if (component != null && !component.isCompact()) return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Memoria usada por las matrices de distancias y siguiente salto
+     */
+    public long getMatrixMemoryBytes() {
+        if (components == null) return matrix().getMemoryBytes();
+        long total = 0;
+        for (FloydWarshall component : components) {
+            if (component != null) total += component.getMatrixMemoryBytes();
+        }
+        return total;
+    }
+    
     /**
-     * Obtiene la ruta más corta entre dos nodos
+     * Obtiene la ruta más corta entre dos nodos. Cuenta primero los saltos para
+     * asignar un arreglo del tamaño exacto de la ruta
      */
     public List<Integer> getShortestPath(int fromNodeId, int toNodeId) {
-        if (!nodeToIndex.containsKey(fromNodeId) || !nodeToIndex.containsKey(toNodeId)) {
+        int fromIndex = graph.indexOf(fromNodeId);
+        int toIndex = graph.indexOf(toNodeId);
+        if (fromIndex < 0 || toIndex < 0 || nextAt(fromIndex, toIndex) == -1) {
             return null;
         }
         
-        int fromIndex = nodeToIndex.get(fromNodeId);
-        int toIndex = nodeToIndex.get(toNodeId);
-        
-        if (next[fromIndex][toIndex] == -1) {
-            return null; // No hay camino
+        int length = 1;
+        for (int current = fromIndex; current != toIndex; current = nextAt(current, toIndex)) {
+            length++;
+        }
+        int[] path = new int[length];
+        writePath(fromIndex, toIndex, path, true);
+        return new PathView(path);
+    }
+    
+    /**
+     * Escribe en buffer los IDs de la ruta más corta y devuelve cuántos escribió,
+     * o -1 si no hay camino. Un buffer de getGraph().getNodeCount() posiciones siempre basta
+     */
+    public int getShortestPath(int fromNodeId, int toNodeId, int[] buffer) {
+        int fromIndex = graph.indexOf(fromNodeId);
+        int toIndex = graph.indexOf(toNodeId);
+        if (fromIndex < 0 || toIndex < 0) {
+            return -1;
+        }
+        return writePath(fromIndex, toIndex, buffer, true);
+    }
+    
+    /**
+     * Igual que getShortestPath con buffer, pero con índices de la vista en lugar de IDs
+     */
+    public int getShortestPathIndices(int fromIndex, int toIndex, int[] buffer) {
+        return writePath(fromIndex, toIndex, buffer, false);
+    }
+    
+    private int writePath(int fromIndex, int toIndex, int[] buffer, boolean asIds) {
+        if (nextAt(fromIndex, toIndex) == -1) {
+            return -1; // No hay camino
         }
         
-        List<Integer> path = new ArrayList<>();
-        path.add(fromNodeId);
-        
+        int length = 0;
         int current = fromIndex;
-        while (current != toIndex) {
-            current = next[current][toIndex];
-            path.add(indexToNode.get(current));
+        while (true) {
+            if (length == buffer.length) {
+                throw new IllegalArgumentException("El buffer no alcanza para la ruta (" + buffer.length + " posiciones)");
+            }
+            buffer[length++] = asIds ? graph.idAt(current) : current;
+            if (current == toIndex) break;
+            current = nextAt(current, toIndex);
         }
-        
-        return path;
+        return length;
+    }
+    
+    /**
+     * Crea un cursor reutilizable para recorrer rutas salto a salto sin asignar memoria
+     */
+    public PathCursor newPathCursor() {
+        return new PathCursor();
     }
     
     /**
      * Obtiene la distancia más corta entre dos nodos
      */
     public double getShortestDistance(int fromNodeId, int toNodeId) {
-        if (!nodeToIndex.containsKey(fromNodeId) || !nodeToIndex.containsKey(toNodeId)) {
+        int fromIndex = graph.indexOf(fromNodeId);
+        int toIndex = graph.indexOf(toNodeId);
+        if (fromIndex < 0 || toIndex < 0) {
             return Double.POSITIVE_INFINITY;
         }
         
-        int fromIndex = nodeToIndex.get(fromNodeId);
-        int toIndex = nodeToIndex.get(toNodeId);
-        
-        return distances[fromIndex][toIndex];
+        int distance = distanceAt(fromIndex, toIndex);
+        return distance == DistanceMatrix.INFINITY ? Double.POSITIVE_INFINITY : distance;
     }
     
     /**
@@ -132,12 +721,18 @@ public class FloydWarshall {
      */
     public Map<Integer, List<Integer>> getAllShortestPathsFrom(int fromNodeId) {
         Map<Integer, List<Integer>> paths = new HashMap<>();
+        int fromIndex = graph.indexOf(fromNodeId);
+        if (fromIndex < 0) {
+            return paths;
+        }
         
-        for (Node node : network.getActiveNodes()) {
-            if (node.getId() != fromNodeId) {
-                List<Integer> path = getShortestPath(fromNodeId, node.getId());
-                if (path != null) {
-                    paths.put(node.getId(), path);
+        // Un solo buffer para todos los destinos; cada ruta se guarda como int[] exacto
+        int[] buffer = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (i != fromIndex) {
+                int length = writePath(fromIndex, i, buffer, true);
+                if (length > 0) {
+                    paths.put(graph.idAt(i), new PathView(Arrays.copyOf(buffer, length)));
                 }
             }
         }
@@ -145,18 +740,42 @@ public class FloydWarshall {
         return paths;
     }
     
+    /**
+     * Obtiene la vista de la topología sobre la que se calcularon las rutas
+     */
+    public GraphSnapshot getGraph() {
+        return graph;
+    }
+    
     /**
      * Obtiene la matriz de distancias
      */
     public double[][] getDistanceMatrix() {
-        return distances;
+        if (distanceMatrixView == null) {
+            distanceMatrixView = new double[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    int distance = distanceAt(i, j);
+                    distanceMatrixView[i][j] = distance == DistanceMatrix.INFINITY ? Double.POSITIVE_INFINITY : distance;
+                }
+            }
+        }
+        return distanceMatrixView;
     }
     
     /**
      * Obtiene la matriz de siguiente nodo
      */
     public int[][] getNextMatrix() {
-        return next;
+        if (nextMatrixView == null) {
+            nextMatrixView = new int[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    nextMatrixView[i][j] = nextAt(i, j);
+                }
+            }
+        }
+        return nextMatrixView;
     }
     
     /**
@@ -164,12 +783,13 @@ public class FloydWarshall {
      */
     public void printDistanceMatrix() {
         System.out.println("Matriz de distancias:");
-        for (int i = 0; i < distances.length; i++) {
-            for (int j = 0; j < distances[i].length; j++) {
-                if (distances[i][j] == Double.POSITIVE_INFINITY) {
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int distance = distanceAt(i, j);
+                if (distance == DistanceMatrix.INFINITY) {
                     System.out.print("∞ ");
                 } else {
-                    System.out.printf("%.0f ", distances[i][j]);
+                    System.out.print(distance + " ");
                 }
             }
             System.out.println();
@@ -177,26 +797,105 @@ public class FloydWarshall {
     }
     
     /**
-     * Obtiene el nodo más central (menor suma de distancias a todos los demás)
+     * Tarea que reparte las componentes pequeñas; cada una se calcula en un solo hilo
      */
-    public Node getMostCentralNode() {
-        double minSum = Double.POSITIVE_INFINITY;
-        Node mostCentral = null;
+    private class ComponentRangeTask extends RecursiveAction {
+        private final int[] pending;
+        private final int from;
+        private final int to;
         
-        for (Node node : network.getActiveNodes()) {
-            double sum = 0;
-            for (Node other : network.getActiveNodes()) {
-                if (node.getId() != other.getId()) {
-                    sum += getShortestDistance(node.getId(), other.getId());
-                }
+        ComponentRangeTask(int[] pending, int from, int to) {
+            this.pending = pending;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                components[pending[from]].execute();
+                return;
             }
-            
-            if (sum < minSum) {
-                minSum = sum;
-                mostCentral = node;
+            int mid = (from + to) >>> 1;
+            invokeAll(new ComponentRangeTask(pending, from, mid), new ComponentRangeTask(pending, mid, to));
+        }
+    }
+    
+    /**
+     * Cursor reutilizable que recorre una ruta salto a salto leyendo la matriz
+     * de siguiente nodo, sin crear listas ni objetos por salto
+     */
+    public class PathCursor {
+        private int current = -1;
+        private int target = -1;
+        private boolean started;
+        
+        /**
+         * Posiciona el cursor al inicio de la ruta entre dos IDs. Devuelve false si no hay camino
+         */
+        public boolean reset(int fromNodeId, int toNodeId) {
+            return resetIndices(graph.indexOf(fromNodeId), graph.indexOf(toNodeId));
+        }
+        
+        /**
+         * Igual que reset pero con índices de la vista
+         */
+        public boolean resetIndices(int fromIndex, int toIndex) {
+            started = false;
+            if (fromIndex < 0 || toIndex < 0 || nextAt(fromIndex, toIndex) == -1) {
+                current = -1;
+                target = -1;
+                return false;
             }
+            current = fromIndex;
+            target = toIndex;
+            return true;
         }
         
-        return mostCentral;
+        public boolean hasNext() {
+            return current >= 0 && (!started || current != target);
+        }
+        
+        /**
+         * Avanza y devuelve el índice del siguiente nodo de la ruta (el primero es el origen)
+         */
+        public int nextIndex() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (started) {
+                current = nextAt(current, target);
+            }
+            started = true;
+            return current;
+        }
+        
+        /**
+         * Avanza y devuelve el ID del siguiente nodo de la ruta
+         */
+        public int nextNodeId() {
+            return graph.idAt(nextIndex());
+        }
+    }
+    
+    /**
+     * Lista de solo lectura sobre un int[]; los Integer se crean solo al leer
+     */
+    private static class PathView extends AbstractList<Integer> implements RandomAccess {
+        private final int[] ids;
+        
+        PathView(int[] ids) {
+            this.ids = ids;
+        }
+        
+        @Override
+        public Integer get(int index) {
+            return ids[index];
+        }
+        
+        @Override
+        public int size() {
+            return ids.length;
+        }
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
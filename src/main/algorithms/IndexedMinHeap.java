@@ -0,0 +1,103 @@
+package main.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Montículo binario de mínimos sobre índices 0..capacity-1 con prioridad entera
+ * y operación de disminuir clave, sin objetos por elemento
+ */
+public class IndexedMinHeap {
+    private final int[] heap;
+    private final int[] position;
+    private final int[] key;
+    private int size;
+    
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        key = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+    
+    public boolean isEmpty() { return size == 0; }
+    
+    public int size() { return size; }
+    
+    public boolean contains(int index) { return position[index] >= 0; }
+    
+    public int peekKey() { return key[heap[0]]; }
+    
+    /**
+     * Inserta el índice o disminuye su prioridad si ya está en el montículo
+     */
+    public void insertOrDecrease(int index, int priority) {
+        if (position[index] < 0) {
+            heap[size] = index;
+            position[index] = size;
+            key[index] = priority;
+            siftUp(size++);
+        } else if (priority < key[index]) {
+            key[index] = priority;
+            siftUp(position[index]);
+        }
+    }
+    
+    /**
+     * Extrae el índice con menor prioridad
+     */
+    public int poll() {
+        int top = heap[0];
+        position[top] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+    
+    /**
+     * Vacía el montículo dejando las posiciones listas para reutilizarlo
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+    
+    private void siftUp(int i) {
+        int item = heap[i];
+        int itemKey = key[item];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int parentItem = heap[parent];
+            if (key[parentItem] <= itemKey) break;
+            heap[i] = parentItem;
+            position[parentItem] = i;
+            i = parent;
+        }
+        heap[i] = item;
+        position[item] = i;
+    }
+    
+    private void siftDown(int i) {
+        int item = heap[i];
+        int itemKey = key[item];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && key[heap[right]] < key[heap[child]]) {
+                child = right;
+            }
+            if (itemKey <= key[heap[child]]) break;
+            heap[i] = heap[child];
+            position[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = item;
+        position[item] = i;
+    }
+}
\ No newline at end of file
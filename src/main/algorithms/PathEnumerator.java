@@ -0,0 +1,253 @@
+package main.algorithms;
+
+import main.model.GraphSnapshot;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Recorrido perezoso de las rutas simples hacia un destino. Es el DFS con pila
+ * explícita de RouteTreeFinder detenido tras cada ruta: la memoria no crece con
+ * el número de rutas y el recorrido puede abandonarse en cualquier momento.
+ * Las rutas salen en el mismo orden que en findAllPaths
+ */
+public class PathEnumerator implements Iterator<List<Integer>> {
+    private final GraphSnapshot graph;
+    private final int target;
+    private final int maxDepth;
+    private final int maxLatency;
+    private final long maxPaths;
+    
+    // Cota inferior de la latencia restante de cada índice al destino (null: sin cota)
+    private final int[] lowerBound;
+    
+    // Por nivel: nodo de la ruta, siguiente arista a probar y latencia acumulada
+    private final int[] path;
+    private final int[] cursor;
+    private final int[] latency;
+    private final long[] visited;
+    private final int base;
+    private int depth;
+    
+    // Ruta actual, primera posición que cambió respecto a la anterior y estado del recorrido
+    private int length;
+    private int changed;
+    private long emitted;
+    private boolean trivial;
+    private boolean finished;
+    private boolean truncated;
+    
+    // Lectura anticipada para hasNext
+    private boolean peeked;
+    private boolean peekedResult;
+    
+    /**
+     * Recorre las extensiones de un prefijo (índices de la vista) hasta el destino.
+     * Con lowerBound (distancias al destino, p. ej. de Dijkstra.runTo) se poda toda
+     * rama cuya latencia acumulada más la cota supere maxLatency, y las que no
+     * pueden llegar al destino
+     */
+    PathEnumerator(GraphSnapshot graph, int[] prefix, int prefixLatency, int target,
+                   int maxDepth, int maxLatency, long maxPaths, int[] lowerBound) {
+        this.graph = graph;
+        this.target = target;
+        this.maxDepth = maxDepth;
+        this.maxLatency = maxLatency;
+        this.maxPaths = maxPaths;
+        this.lowerBound = lowerBound;
+        
+        int size = Math.max(maxDepth + 1, prefix.length);
+        path = new int[size];
+        cursor = new int[size];
+        latency = new int[size];
+        visited = new long[(graph.getNodeCount() + 63) >>> 6];
+        
+        base = prefix.length - 1;
+        depth = base;
+        
+        // Un índice negativo indica origen o destino inexistente: no hay rutas
+        finished = prefix[base] < 0 || target < 0 || base > maxDepth || exceedsBudget(prefix[base], prefixLatency);
+        if (finished) return;
+        
+        for (int i = 0; i <= base; i++) {
+            path[i] = prefix[i];
+            visited[prefix[i] >>> 6] |= 1L << prefix[i];
+        }
+        latency[base] = prefixLatency;
+        cursor[base] = graph.getOffsets()[prefix[base]];
+        
+        // Origen igual al destino: la única ruta es el propio nodo
+        trivial = prefix[base] == target;
+    }
+    
+    /**
+     * Recorrido sin rutas (origen o destino inexistente o inactivo)
+     */
+    static PathEnumerator empty(GraphSnapshot graph) {
+        return new PathEnumerator(graph, new int[] {-1}, 0, -1, 0, 0, 0, null);
+    }
+    
+    /**
+     * Verdadero si ninguna ruta por el índice con esa latencia acumulada cabe en el presupuesto
+     */
+    private boolean exceedsBudget(int index, int accumulated) {
+        if (accumulated > maxLatency) return true;
+        if (lowerBound == null) return false;
+        int remaining = lowerBound[index];
+        return remaining == DistanceMatrix.INFINITY || accumulated + remaining > maxLatency;
+    }
+    
+    /**
+     * Avanza a la siguiente ruta. Devuelve false al agotar las rutas o alcanzar el
+     * límite; la ruta actual se lee con getPath, getLength y getLatency
+     */
+    public boolean advance() {
+        if (finished) return false;
+        if (emitted >= maxPaths) {
+            truncated = true;
+            finished = true;
+            return false;
+        }
+        if (trivial) {
+            trivial = false;
+            finished = true;
+            length = 1;
+            changed = 0;
+            emitted++;
+            return true;
+        }
+        
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] latencies = graph.getLatencies();
+        
+        // Las posiciones no reescritas desde la ruta anterior son un prefijo común
+        changed = Integer.MAX_VALUE;
+        
+        while (depth >= base) {
+            int u = path[depth];
+            
+            // Nivel agotado o en el límite de profundidad: backtracking
+            if (depth == maxDepth || cursor[depth] == offsets[u + 1]) {
+                visited[u >>> 6] &= ~(1L << u);
+                depth--;
+                continue;
+            }
+            
+            int e = cursor[depth]++;
+            int v = targets[e];
+            
+            // Evitar ciclos (no visitar el mismo nodo dos veces en la misma ruta)
+            if ((visited[v >>> 6] & (1L << v)) != 0) continue;
+            
+            // Con latencias no negativas, una rama sobre el presupuesto no puede mejorar
+            int next = latency[depth] + latencies[e];
+            if (exceedsBudget(v, next)) continue;
+            
+            path[depth + 1] = v;
+            latency[depth + 1] = next;
+            changed = Math.min(changed, depth + 1);
+            
+            // Si llegamos al destino, entregar la ruta sin expandirlo
+            if (v == target) {
+                length = depth + 2;
+                emitted++;
+                return true;
+            }
+            
+            depth++;
+            visited[v >>> 6] |= 1L << v;
+            cursor[depth] = offsets[v];
+        }
+        
+        finished = true;
+        return false;
+    }
+    
+    /**
+     * Índices de la vista de la ruta actual en [0, getLength()). El arreglo se
+     * reutiliza al avanzar: hay que copiarlo si se guarda
+     */
+    public int[] getPath() { return path; }
+    
+    public int getLength() { return length; }
+    
+    public int getHops() { return length - 1; }
+    
+    /**
+     * Latencia total de la ruta actual, acumulada durante la búsqueda
+     */
+    public int getLatency() { return latency[length - 1]; }
+    
+    /**
+     * Latencia acumulada desde el origen hasta una posición de la ruta actual
+     */
+    public int getLatencyAt(int position) { return latency[position]; }
+    
+    /**
+     * Primera posición de la ruta actual distinta de la ruta anterior; las previas
+     * coinciden. En la primera ruta es la posición siguiente al prefijo inicial
+     */
+    public int getChangedPosition() { return changed; }
+    
+    /**
+     * Rutas entregadas hasta ahora
+     */
+    public long getEmittedCount() { return emitted; }
+    
+    /**
+     * Verdadero si el recorrido se detuvo al alcanzar maxPaths (puede que no quedaran más rutas)
+     */
+    public boolean isTruncated() { return truncated; }
+    
+    /**
+     * Ruta actual como lista de IDs
+     */
+    public List<Integer> getPathIds() {
+        List<Integer> ids = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            ids.add(graph.idAt(path[i]));
+        }
+        return ids;
+    }
+    
+    public GraphSnapshot getGraph() { return graph; }
+    
+    @Override
+    public boolean hasNext() {
+        if (!peeked) {
+            peekedResult = advance();
+            peeked = true;
+        }
+        return peekedResult;
+    }
+    
+    @Override
+    public List<Integer> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        peeked = false;
+        return getPathIds();
+    }
+    
+    /**
+     * Spliterator secuencial y ordenado; el tamaño no se conoce de antemano
+     */
+    public Spliterator<List<Integer>> spliterator() {
+        return Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+    
+    /**
+     * Flujo perezoso de rutas; operaciones como limit o findFirst detienen el DFS
+     */
+    public Stream<List<Integer>> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+}
\ No newline at end of file
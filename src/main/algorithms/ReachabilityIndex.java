@@ -0,0 +1,158 @@
+package main.algorithms;
+
+import main.model.GraphSnapshot;
+import main.model.Network;
+
+import java.util.BitSet;
+
+/**
+ * Índice de alcanzabilidad: cierre transitivo del grafo de condensación guardado
+ * como bits (64 pares por long). Responde si existe camino en O(1) sin calcular
+ * latencias. Con C componentes fuertes ocupa unos C²/16 bytes (cada fila solo
+ * llega hasta su propia componente), frente a los 8·n² de la matriz de distancias
+ */
+public class ReachabilityIndex {
+    // Sobre este número de componentes fuertes el cierre de bits no compensa su memoria
+    public static final int MAX_COMPONENTS = 16384;
+    
+    private final GraphSnapshot graph;
+    private final StronglyConnectedComponents components;
+    private final int componentCount;
+    
+    // Fila c: componentes alcanzables desde c, incluida ella misma
+    private long[][] closure;
+    
+    public ReachabilityIndex(Network network) {
+        this(network.snapshot());
+    }
+    
+    public ReachabilityIndex(GraphSnapshot graph) {
+        this(computeComponents(graph));
+    }
+    
+    /**
+     * Reutiliza componentes fuertes ya calculadas sobre la misma vista
+     */
+    public ReachabilityIndex(StronglyConnectedComponents components) {
+        this.graph = components.getGraph();
+        this.components = components;
+        this.componentCount = components.getComponentCount();
+    }
+    
+    private static StronglyConnectedComponents computeComponents(GraphSnapshot graph) {
+        StronglyConnectedComponents components = new StronglyConnectedComponents(graph);
+        components.execute();
+        return components;
+    }
+    
+    /**
+     * Construye el cierre. Como las aristas del DAG van de componentes mayores a
+     * menores, al procesar c en orden creciente sus sucesores ya están completos
+     */
+    public void execute() {
+        int[] dagOffsets = components.getDagOffsets();
+        int[] dagTargets = components.getDagTargets();
+        
+        closure = new long[componentCount][];
+        for (int c = 0; c < componentCount; c++) {
+            // Las componentes alcanzables desde c son siempre <= c: basta la fila hasta esa palabra
+            long[] row = new long[(c >>> 6) + 1];
+            row[c >>> 6] |= 1L << c;
+            for (int e = dagOffsets[c]; e < dagOffsets[c + 1]; e++) {
+                long[] successor = closure[dagTargets[e]];
+                for (int w = 0; w < successor.length; w++) {
+                    row[w] |= successor[w];
+                }
+            }
+            closure[c] = row;
+        }
+    }
+    
+    /**
+     * Verdadero si existe camino dirigido entre dos nodos por ID
+     */
+    public boolean canReach(int fromNodeId, int toNodeId) {
+        int from = graph.indexOf(fromNodeId);
+        int to = graph.indexOf(toNodeId);
+        return from >= 0 && to >= 0 && canReachIndex(from, to);
+    }
+    
+    /**
+     * Igual que canReach pero con índices de la vista
+     */
+    public boolean canReachIndex(int fromIndex, int toIndex) {
+        long[] row = closure[components.getComponent(fromIndex)];
+        int target = components.getComponent(toIndex);
+        int word = target >>> 6;
+        return word < row.length && (row[word] & (1L << target)) != 0;
+    }
+    
+    /**
+     * Índices de la vista alcanzables desde el nodo, incluido él mismo.
+     * Vacío si el nodo no está activo
+     */
+    public BitSet getReachableFrom(int nodeId) {
+        BitSet reachable = new BitSet(graph.getNodeCount());
+        int from = graph.indexOf(nodeId);
+        if (from < 0) return reachable;
+        
+        int[] memberOffsets = components.getMemberOffsets();
+        int[] members = components.getMembers();
+        long[] row = closure[components.getComponent(from)];
+        for (int w = 0; w < row.length; w++) {
+            for (long bits = row[w]; bits != 0; bits &= bits - 1) {
+                int c = (w << 6) + Long.numberOfTrailingZeros(bits);
+                for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++) {
+                    reachable.set(members[m]);
+                }
+            }
+        }
+        return reachable;
+    }
+    
+    /**
+     * Número de nodos alcanzables desde el nodo, incluido él mismo
+     */
+    public int getReachableCount(int nodeId) {
+        int from = graph.indexOf(nodeId);
+        if (from < 0) return 0;
+        
+        long[] row = closure[components.getComponent(from)];
+        int count = 0;
+        for (int w = 0; w < row.length; w++) {
+            for (long bits = row[w]; bits != 0; bits &= bits - 1) {
+                count += components.getComponentSize((w << 6) + Long.numberOfTrailingZeros(bits));
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Verdadero si todo nodo alcanza a todos los demás
+     */
+    public boolean isStronglyConnected() {
+        return componentCount <= 1;
+    }
+    
+    /**
+     * Indica si el índice corresponde a la versión actual de la red
+     */
+    public boolean isCurrent(Network network) {
+        return graph.getVersion() == network.getVersion();
+    }
+    
+    /**
+     * Memoria ocupada por las filas del cierre
+     */
+    public long getMemoryBytes() {
+        long total = 0;
+        for (long[] row : closure) {
+            total += 8L * row.length;
+        }
+        return total;
+    }
+    
+    public GraphSnapshot getGraph() { return graph; }
+    
+    public StronglyConnectedComponents getComponents() { return components; }
+}
\ No newline at end of file
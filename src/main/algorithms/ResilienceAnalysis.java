@@ -0,0 +1,353 @@
+package main.algorithms;
+
+import main.model.Connection;
+import main.model.GraphSnapshot;
+import main.model.Network;
+import main.model.Node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Enlaces críticos (puentes) y nodos críticos (puntos de articulación) de la red
+ * en O(V+E) con un único DFS de Tarjan iterativo. Se usa la vista no dirigida:
+ * cada conexión activa es una arista propia, así que dos conexiones entre el mismo
+ * par (en cualquier sentido) nunca son puente
+ */
+public class ResilienceAnalysis {
+    // Nombres listados por elemento en el reporte antes de resumir
+    private static final int REPORT_NAME_LIMIT = 10;
+    
+    private final GraphSnapshot graph;
+    private final int n;
+    
+    // Aristas no dirigidas: una por conexión activa entre nodos activos
+    private Connection[] edges;
+    private int[] adjOffsets;
+    private int[] adjNodes;
+    private int[] adjEdges;
+    
+    // Resultado del DFS; order lista los nodos por tiempo de descubrimiento, de modo
+    // que el subárbol de v ocupa order[disc[v] .. disc[v] + subtreeSize[v] - 1]
+    private int[] disc;
+    private int[] subtreeSize;
+    private int[] order;
+    private int componentCount;
+    
+    // Puentes: arista y nodo hijo cuyo subárbol queda aislado
+    private int[] bridgeEdges;
+    private int[] bridgeChildren;
+    private int bridgeCount;
+    
+    // Piezas que separa cada punto de articulación: nodo y raíz del subárbol separado
+    private int[] pieceOwners;
+    private int[] pieceChildren;
+    private int pieceCount;
+    private boolean[] articulation;
+    
+    // Piezas agrupadas por nodo: las de v son pieceByOwner[pieceOffsets[v] .. pieceOffsets[v + 1])
+    private int[] pieceOffsets;
+    private int[] pieceByOwner;
+    
+    public ResilienceAnalysis(Network network) {
+        this.graph = network.snapshot();
+        this.n = graph.getNodeCount();
+        buildUndirectedView(network.getActiveConnections());
+    }
+    
+    /**
+     * Lista de adyacencia no dirigida en formato CSR con el ID de arista en cada entrada
+     */
+    private void buildUndirectedView(List<Connection> connections) {
+        List<Connection> valid = new ArrayList<>();
+        for (Connection conn : connections) {
+            int u = graph.indexOf(conn.getFromNode().getId());
+            int v = graph.indexOf(conn.getToNode().getId());
+            if (u >= 0 && v >= 0 && u != v) {
+                valid.add(conn);
+            }
+        }
+        edges = valid.toArray(new Connection[0]);
+        
+        adjOffsets = new int[n + 1];
+        int[] from = new int[edges.length];
+        int[] to = new int[edges.length];
+        for (int e = 0; e < edges.length; e++) {
+            from[e] = graph.indexOf(edges[e].getFromNode().getId());
+            to[e] = graph.indexOf(edges[e].getToNode().getId());
+            adjOffsets[from[e] + 1]++;
+            adjOffsets[to[e] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            adjOffsets[i + 1] += adjOffsets[i];
+        }
+        
+        adjNodes = new int[2 * edges.length];
+        adjEdges = new int[2 * edges.length];
+        int[] fill = Arrays.copyOf(adjOffsets, n);
+        for (int e = 0; e < edges.length; e++) {
+            int pos = fill[from[e]]++;
+            adjNodes[pos] = to[e];
+            adjEdges[pos] = e;
+            pos = fill[to[e]]++;
+            adjNodes[pos] = from[e];
+            adjEdges[pos] = e;
+        }
+    }
+    
+    /**
+     * Ejecuta el DFS y clasifica puentes y puntos de articulación
+     */
+    public void execute() {
+        disc = new int[n];
+        subtreeSize = new int[n];
+        order = new int[n];
+        bridgeEdges = new int[Math.max(1, n)];
+        bridgeChildren = new int[Math.max(1, n)];
+        pieceOwners = new int[Math.max(1, n)];
+        pieceChildren = new int[Math.max(1, n)];
+        articulation = new boolean[n];
+        bridgeCount = 0;
+        pieceCount = 0;
+        componentCount = 0;
+        
+        int[] low = new int[n];
+        int[] parent = new int[n];
+        int[] parentEdge = new int[n];
+        int[] cursor = new int[n];
+        int[] stack = new int[n];
+        Arrays.fill(disc, -1);
+        
+        int time = 0;
+        for (int root = 0; root < n; root++) {
+            if (disc[root] >= 0) continue;
+            componentCount++;
+            
+            int rootPieces = pieceCount;
+            int top = 0;
+            stack[top++] = root;
+            parent[root] = -1;
+            parentEdge[root] = -1;
+            disc[root] = low[root] = time;
+            order[time++] = root;
+            cursor[root] = adjOffsets[root];
+            
+            while (top > 0) {
+                int u = stack[top - 1];
+                if (cursor[u] < adjOffsets[u + 1]) {
+                    int pos = cursor[u]++;
+                    int v = adjNodes[pos];
+                    int e = adjEdges[pos];
+                    
+                    // Solo se ignora la misma arista de llegada, no sus paralelas
+                    if (e == parentEdge[u]) continue;
+                    
+                    if (disc[v] < 0) {
+                        parent[v] = u;
+                        parentEdge[v] = e;
+                        disc[v] = low[v] = time;
+                        order[time++] = v;
+                        cursor[v] = adjOffsets[v];
+                        stack[top++] = v;
+                    } else {
+                        low[u] = Math.min(low[u], disc[v]);
+                    }
+                    continue;
+                }
+                
+                // u terminó: sus descendientes son los descubiertos después de él
+                top--;
+                subtreeSize[u] = time - disc[u];
+                int p = parent[u];
+                if (p < 0) continue;
+                
+                low[p] = Math.min(low[p], low[u]);
+                if (low[u] > disc[p]) {
+                    bridgeEdges[bridgeCount] = parentEdge[u];
+                    bridgeChildren[bridgeCount++] = u;
+                }
+                if (low[u] >= disc[p]) {
+                    pieceOwners[pieceCount] = p;
+                    pieceChildren[pieceCount++] = u;
+                    if (p != root) {
+                        articulation[p] = true;
+                    }
+                }
+            }
+            
+            // La raíz es de articulación solo si tiene dos o más hijos en el árbol DFS
+            int rootChildren = 0;
+            for (int i = rootPieces; i < pieceCount; i++) {
+                if (pieceOwners[i] == root) rootChildren++;
+            }
+            if (rootChildren >= 2) {
+                articulation[root] = true;
+            } else {
+                // Con un solo hijo la raíz no separa nada: descartar su pieza
+                int write = rootPieces;
+                for (int i = rootPieces; i < pieceCount; i++) {
+                    if (pieceOwners[i] != root) {
+                        pieceOwners[write] = pieceOwners[i];
+                        pieceChildren[write++] = pieceChildren[i];
+                    }
+                }
+                pieceCount = write;
+            }
+        }
+        
+        groupPiecesByOwner();
+    }
+    
+    /**
+     * Ordena las piezas por nodo separador con un conteo estable, conservando el
+     * orden del DFS dentro de cada nodo
+     */
+    private void groupPiecesByOwner() {
+        pieceOffsets = new int[n + 1];
+        for (int i = 0; i < pieceCount; i++) {
+            pieceOffsets[pieceOwners[i] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            pieceOffsets[v + 1] += pieceOffsets[v];
+        }
+        pieceByOwner = new int[pieceCount];
+        int[] fill = Arrays.copyOf(pieceOffsets, n);
+        for (int i = 0; i < pieceCount; i++) {
+            pieceByOwner[fill[pieceOwners[i]]++] = i;
+        }
+    }
+    
+    /**
+     * Número de componentes en la vista no dirigida (débilmente conexas)
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+    
+    /**
+     * Conexiones cuya falla divide su componente en dos
+     */
+    public List<Connection> getBridges() {
+        List<Connection> bridges = new ArrayList<>();
+        for (int i = 0; i < bridgeCount; i++) {
+            bridges.add(edges[bridgeEdges[i]]);
+        }
+        return bridges;
+    }
+    
+    /**
+     * Nodos cuya falla divide su componente
+     */
+    public List<Node> getArticulationPoints() {
+        List<Node> points = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (articulation[i]) {
+                points.add(graph.getNode(i));
+            }
+        }
+        return points;
+    }
+    
+    public boolean isBridge(Connection connection) {
+        return bridgeIndexOf(connection) >= 0;
+    }
+    
+    public boolean isArticulationPoint(int nodeId) {
+        int index = graph.indexOf(nodeId);
+        return index >= 0 && articulation[index];
+    }
+    
+    /**
+     * Nodos que quedan separados del resto si falla el puente (lado opuesto a la raíz del DFS).
+     * Lista vacía si la conexión no es puente
+     */
+    public List<Node> getNodesCutOffBy(Connection bridge) {
+        int i = bridgeIndexOf(bridge);
+        return i < 0 ? new ArrayList<>() : subtreeNodes(bridgeChildren[i]);
+    }
+    
+    /**
+     * Grupos de nodos que quedan aislados si falla el nodo. Para la raíz de un árbol DFS
+     * se listan todos sus subárboles; para los demás, los que no conservan camino a la raíz
+     */
+    public List<List<Node>> getGroupsCutOffBy(int nodeId) {
+        List<List<Node>> groups = new ArrayList<>();
+        int index = graph.indexOf(nodeId);
+        if (index < 0 || !articulation[index]) {
+            return groups;
+        }
+        for (int p = pieceOffsets[index]; p < pieceOffsets[index + 1]; p++) {
+            groups.add(subtreeNodes(pieceChildren[pieceByOwner[p]]));
+        }
+        return groups;
+    }
+    
+    private int bridgeIndexOf(Connection connection) {
+        for (int i = 0; i < bridgeCount; i++) {
+            if (edges[bridgeEdges[i]] == connection) return i;
+        }
+        return -1;
+    }
+    
+    private List<Node> subtreeNodes(int root) {
+        List<Node> nodes = new ArrayList<>(subtreeSize[root]);
+        for (int i = disc[root]; i < disc[root] + subtreeSize[root]; i++) {
+            nodes.add(graph.getNode(order[i]));
+        }
+        return nodes;
+    }
+    
+    /**
+     * Reporte de resiliencia de toda la red: enlaces y nodos críticos y qué aíslan.
+     * Los tamaños salen de subtreeSize y solo se leen los nombres que se imprimen,
+     * así que el reporte es lineal en el tamaño de la red
+     */
+    public String generateReport() {
+        StringBuilder report = new StringBuilder();
+        
+        report.append("Enlaces críticos (puentes): ").append(bridgeCount).append("\n");
+        for (int i = 0; i < bridgeCount; i++) {
+            Connection bridge = edges[bridgeEdges[i]];
+            int child = bridgeChildren[i];
+            report.append("  - ").append(bridge.getFromNode().getName())
+                    .append(" -> ").append(bridge.getToNode().getName())
+                    .append(": aísla ").append(subtreeSize[child]).append(" nodo(s): ");
+            appendSubtreeNames(report, child);
+            report.append("\n");
+        }
+        
+        int pointCount = 0;
+        for (int v = 0; v < n; v++) {
+            if (articulation[v]) pointCount++;
+        }
+        report.append("\nNodos críticos (articulación): ").append(pointCount).append("\n");
+        for (int v = 0; v < n; v++) {
+            if (!articulation[v]) continue;
+            report.append("  - ").append(graph.getNode(v).getName()).append(": divide en ")
+                    .append(pieceOffsets[v + 1] - pieceOffsets[v]).append(" grupo(s)\n");
+            for (int p = pieceOffsets[v]; p < pieceOffsets[v + 1]; p++) {
+                report.append("      ");
+                appendSubtreeNames(report, pieceChildren[pieceByOwner[p]]);
+                report.append("\n");
+            }
+        }
+        
+        return report.toString();
+    }
+    
+    /**
+     * Nombres del subárbol DFS de root, hasta REPORT_NAME_LIMIT y el resto resumido
+     */
+    private void appendSubtreeNames(StringBuilder names, int root) {
+        int size = subtreeSize[root];
+        int start = disc[root];
+        for (int i = 0; i < size && i < REPORT_NAME_LIMIT; i++) {
+            if (i > 0) names.append(", ");
+            names.append(graph.getNode(order[start + i]).getName());
+        }
+        if (size > REPORT_NAME_LIMIT) {
+            names.append(" ... (+").append(size - REPORT_NAME_LIMIT).append(")");
+        }
+    }
+}
\ No newline at end of file
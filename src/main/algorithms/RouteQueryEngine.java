@@ -0,0 +1,276 @@
+package main.algorithms;
+
+import main.model.GraphSnapshot;
+import main.model.Network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Consultas de ruta más corta bajo demanda. Calcula el árbol de un solo origen
+ * la primera vez que se pide y lo guarda en una caché LRU acotada, sin
+ * necesitar la matriz completa de todos los pares
+ */
+public class RouteQueryEngine {
+    public static final int DEFAULT_CAPACITY = 16;
+    
+    private final Network network;
+    private final int capacity;
+    private final Map<TreeKey, SourceTree> cache;
+    
+    // Vista CSR de la versión actual, sus componentes fuertes y Dijkstra reutilizable
+    private GraphSnapshot graph;
+    private StronglyConnectedComponents components;
+    private ReachabilityIndex reachability;
+    private Dijkstra dijkstra;
+    
+    private long hits;
+    private long misses;
+    
+    public RouteQueryEngine(Network network) {
+        this(network, DEFAULT_CAPACITY);
+    }
+    
+    public RouteQueryEngine(Network network, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("La capacidad de la caché debe ser al menos 1");
+        }
+        this.network = network;
+        this.capacity = capacity;
+        
+        // LinkedHashMap en orden de acceso: el primero es el menos usado
+        this.cache = new LinkedHashMap<TreeKey, SourceTree>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TreeKey, SourceTree> eldest) {
+                return size() > RouteQueryEngine.this.capacity;
+            }
+        };
+    }
+    
+    /**
+     * Obtiene la ruta más corta entre dos nodos, o null si no existe
+     */
+    public synchronized List<Integer> getShortestPath(int fromNodeId, int toNodeId) {
+        if (isProvablyUnreachable(fromNodeId, toNodeId)) return null;
+        
+        SourceTree tree = treeFor(fromNodeId);
+        int to = graph.indexOf(toNodeId);
+        if (tree == null || to < 0 || tree.distances[to] == DistanceMatrix.INFINITY) {
+            return null;
+        }
+        
+        // Recorrer los padres desde el destino y luego invertir
+        List<Integer> path = new ArrayList<>();
+        for (int v = to; v >= 0; v = tree.parents[v]) {
+            path.add(graph.idAt(v));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+    
+    /**
+     * Obtiene la distancia más corta entre dos nodos, infinito si no hay camino
+     */
+    public synchronized double getShortestDistance(int fromNodeId, int toNodeId) {
+        if (isProvablyUnreachable(fromNodeId, toNodeId)) return Double.POSITIVE_INFINITY;
+        
+        SourceTree tree = treeFor(fromNodeId);
+        int to = graph.indexOf(toNodeId);
+        if (tree == null || to < 0 || tree.distances[to] == DistanceMatrix.INFINITY) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return tree.distances[to];
+    }
+    
+    /**
+     * Siguiente salto desde el origen hacia el destino, o -1 si no hay camino
+     */
+    public synchronized int getNextHop(int fromNodeId, int toNodeId) {
+        if (isProvablyUnreachable(fromNodeId, toNodeId)) return -1;
+        
+        SourceTree tree = treeFor(fromNodeId);
+        int to = graph.indexOf(toNodeId);
+        if (tree == null || to < 0 || to == tree.source || tree.distances[to] == DistanceMatrix.INFINITY) {
+            return -1;
+        }
+        
+        return graph.idAt(tree.firstHops()[to]);
+    }
+    
+    /**
+     * Tabla de reenvío del origen: ID de cada destino alcanzable (distinto del
+     * origen) con el ID de su siguiente salto, en orden de distancia. Se calcula
+     * en una pasada por el orden de asentamiento del árbol en caché
+     */
+    public synchronized Map<Integer, Integer> getNextHops(int fromNodeId) {
+        Map<Integer, Integer> nextHops = new LinkedHashMap<>();
+        SourceTree tree = treeFor(fromNodeId);
+        if (tree == null) return nextHops;
+        
+        int[] firstHops = tree.firstHops();
+        for (int i = 1; i < tree.order.length; i++) {
+            int v = tree.order[i];
+            nextHops.put(graph.idAt(v), graph.idAt(firstHops[v]));
+        }
+        return nextHops;
+    }
+    
+    /**
+     * Verifica si existe un camino; usa el índice de alcanzabilidad sin calcular árboles
+     */
+    public synchronized boolean hasPath(int fromNodeId, int toNodeId) {
+        refreshSnapshot();
+        if (reachability == null && components.getComponentCount() <= ReachabilityIndex.MAX_COMPONENTS) {
+            reachability = new ReachabilityIndex(components);
+            reachability.execute();
+        }
+        if (reachability != null) {
+            return reachability.canReach(fromNodeId, toNodeId);
+        }
+        return getShortestDistance(fromNodeId, toNodeId) != Double.POSITIVE_INFINITY;
+    }
+    
+    /**
+     * Vista CSR usada por la última consulta
+     */
+    public synchronized GraphSnapshot getGraph() {
+        refreshSnapshot();
+        return graph;
+    }
+    
+    public synchronized void clearCache() {
+        cache.clear();
+    }
+    
+    public int getCapacity() { return capacity; }
+    
+    public synchronized int getCachedTreeCount() { return cache.size(); }
+    
+    public synchronized long getCacheHits() { return hits; }
+    
+    public synchronized long getCacheMisses() { return misses; }
+    
+    /**
+     * Verdadero si el orden de las componentes fuertes descarta todo camino,
+     * lo que evita calcular un árbol solo para responder que no hay ruta
+     */
+    private boolean isProvablyUnreachable(int fromNodeId, int toNodeId) {
+        refreshSnapshot();
+        int from = graph.indexOf(fromNodeId);
+        int to = graph.indexOf(toNodeId);
+        return from >= 0 && to >= 0 && !components.mayReach(from, to);
+    }
+    
+    /**
+     * Devuelve el árbol del origen, calculándolo si no está en caché
+     */
+    private SourceTree treeFor(int sourceId) {
+        refreshSnapshot();
+        int source = graph.indexOf(sourceId);
+        if (source < 0) return null;
+        
+        TreeKey key = new TreeKey(sourceId, graph.getVersion());
+        SourceTree tree = cache.get(key);
+        if (tree != null) {
+            hits++;
+            return tree;
+        }
+        
+        misses++;
+        dijkstra.runFrom(source);
+        int[] order = new int[dijkstra.getSettledCount()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = dijkstra.getSettled(i);
+        }
+        tree = new SourceTree(source, dijkstra.getDistances().clone(), dijkstra.getParents().clone(), order);
+        cache.put(key, tree);
+        return tree;
+    }
+    
+    /**
+     * Toma una nueva vista si la red cambió y descarta los árboles de versiones anteriores
+     */
+    private void refreshSnapshot() {
+        if (graph != null && graph.getVersion() == network.getVersion()) return;
+        
+        graph = network.snapshot();
+        components = new StronglyConnectedComponents(graph);
+        components.execute();
+        reachability = null;
+        dijkstra = new Dijkstra(graph);
+        long version = graph.getVersion();
+        cache.keySet().removeIf(key -> key.version != version);
+    }
+    
+    /**
+     * Clave de la caché: origen y versión de la red
+     */
+    private static class TreeKey {
+        private final int sourceId;
+        private final long version;
+        
+        TreeKey(int sourceId, long version) {
+            this.sourceId = sourceId;
+            this.version = version;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof TreeKey)) return false;
+            TreeKey other = (TreeKey) obj;
+            return sourceId == other.sourceId && version == other.version;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(sourceId, version);
+        }
+    }
+    
+    /**
+     * Árbol de rutas más cortas de un origen, indexado como la vista CSR
+     */
+    private static class SourceTree {
+        private final int source;
+        private final int[] distances;
+        private final int[] parents;
+        
+        // Nodos alcanzables en orden de asentamiento; el origen es el primero
+        private final int[] order;
+        
+        // Primer salto desde el origen hacia cada índice, calculado bajo demanda
+        private int[] firstHops;
+        
+        SourceTree(int source, int[] distances, int[] parents, int[] order) {
+            this.source = source;
+            this.distances = distances;
+            this.parents = parents;
+            this.order = order;
+        }
+        
+        /**
+         * El padre de cada nodo se asienta antes que él, así que una pasada en
+         * orden de asentamiento basta: el primer salto de v es v si su padre es
+         * el origen, y si no el de su padre
+         */
+        int[] firstHops() {
+            if (firstHops == null) {
+                int[] hops = new int[distances.length];
+                Arrays.fill(hops, -1);
+                for (int i = 1; i < order.length; i++) {
+                    int v = order[i];
+                    int p = parents[v];
+                    hops[v] = p == source ? v : hops[p];
+                }
+                firstHops = hops;
+            }
+            return firstHops;
+        }
+    }
+}
\ No newline at end of file
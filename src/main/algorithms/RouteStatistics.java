@@ -0,0 +1,127 @@
+package main.algorithms;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Estadísticas de rutas acumuladas en una sola pasada a partir de la latencia y
+ * los saltos que entrega la búsqueda, sin guardar las rutas. Cuenta cuántas
+ * rutas tiene cada latencia distinta, así que los percentiles son exactos y la
+ * memoria depende de las latencias distintas y no del número de rutas
+ */
+public class RouteStatistics {
+    private long count;
+    private int minLatency = Integer.MAX_VALUE;
+    private int maxLatency;
+    private long totalLatency;
+    private int minHops = Integer.MAX_VALUE;
+    private int maxHops;
+    private long totalHops;
+    private boolean truncated;
+    
+    // Rutas por latencia (ordenadas) y por número de saltos
+    private final TreeMap<Integer, Long> latencyCounts = new TreeMap<>();
+    private long[] hopCounts = new long[8];
+    
+    /**
+     * Agrega una ruta con su latencia total y sus saltos
+     */
+    public void accept(int latency, int hops) {
+        count++;
+        minLatency = Math.min(minLatency, latency);
+        maxLatency = Math.max(maxLatency, latency);
+        totalLatency += latency;
+        minHops = Math.min(minHops, hops);
+        maxHops = Math.max(maxHops, hops);
+        totalHops += hops;
+        
+        latencyCounts.merge(latency, 1L, Long::sum);
+        if (hops >= hopCounts.length) {
+            hopCounts = Arrays.copyOf(hopCounts, Math.max(hops + 1, hopCounts.length * 2));
+        }
+        hopCounts[hops]++;
+    }
+    
+    /**
+     * Consume el recorrido completo y registra si se detuvo por el límite de rutas
+     */
+    public void acceptAll(PathEnumerator paths) {
+        while (paths.advance()) {
+            accept(paths.getLatency(), paths.getHops());
+        }
+        truncated |= paths.isTruncated();
+    }
+    
+    public long getCount() { return count; }
+    
+    public boolean isTruncated() { return truncated; }
+    
+    public int getMinLatency() { return count == 0 ? 0 : minLatency; }
+    
+    public int getMaxLatency() { return maxLatency; }
+    
+    public double getAverageLatency() {
+        return count == 0 ? 0 : (double) totalLatency / count;
+    }
+    
+    public int getMinHops() { return count == 0 ? 0 : minHops; }
+    
+    public int getMaxHops() { return maxHops; }
+    
+    public double getAverageHops() {
+        return count == 0 ? 0 : (double) totalHops / count;
+    }
+    
+    /**
+     * Percentil de latencia por rango más cercano (p entre 0 y 100): la menor
+     * latencia que cubre al menos el p% de las rutas
+     */
+    public int getLatencyPercentile(double p) {
+        if (p < 0 || p > 100) {
+            throw new IllegalArgumentException("El percentil debe estar entre 0 y 100");
+        }
+        if (count == 0) return 0;
+        
+        long rank = Math.max(1, (long) Math.ceil(p / 100 * count));
+        long seen = 0;
+        for (Map.Entry<Integer, Long> entry : latencyCounts.entrySet()) {
+            seen += entry.getValue();
+            if (seen >= rank) return entry.getKey();
+        }
+        return maxLatency;
+    }
+    
+    /**
+     * Rutas por intervalo de latencia: buckets intervalos de igual ancho entre la
+     * latencia mínima y la máxima (el último incluye la máxima)
+     */
+    public long[] getLatencyHistogram(int buckets) {
+        if (buckets < 1) {
+            throw new IllegalArgumentException("El histograma necesita al menos un intervalo");
+        }
+        long[] histogram = new long[buckets];
+        if (count == 0) return histogram;
+        
+        double width = getBucketWidth(buckets);
+        for (Map.Entry<Integer, Long> entry : latencyCounts.entrySet()) {
+            int bucket = (int) ((entry.getKey() - minLatency) / width);
+            histogram[Math.min(bucket, buckets - 1)] += entry.getValue();
+        }
+        return histogram;
+    }
+    
+    /**
+     * Ancho de cada intervalo del histograma de latencias (al menos 1 ms)
+     */
+    public double getBucketWidth(int buckets) {
+        return Math.max(1.0, (double) (getMaxLatency() - getMinLatency() + 1) / buckets);
+    }
+    
+    /**
+     * Rutas por número de saltos, del 0 a getMaxHops()
+     */
+    public long[] getHopHistogram() {
+        return Arrays.copyOf(hopCounts, maxHops + 1);
+    }
+}
\ No newline at end of file
@@ -1,33 +1,62 @@
 package main.algorithms;
 
+import main.model.GraphSnapshot;
 import main.model.Network;
 import main.model.Node;
-import main.model.Connection;
 import main.model.NodoArbol;
+import main.model.RouteDag;
+import main.model.RouteTree;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
 
 /**
  * Algoritmo para encontrar todas las rutas posibles desde un origen hasta un destino
  * y construir un árbol de rutas
  */
 public class RouteTreeFinder {
+    // En modo paralelo, saltos fijados antes de repartir las ramas entre los hilos
+    private static final int SPLIT_DEPTH = 2;
+    
+    // Intervalos del histograma de latencias en getRouteStatistics
+    private static final int HISTOGRAM_BUCKETS = 10;
+    
     private Network network;
-    private Set<Integer> visited;
-    private List<List<Integer>> allPaths;
+    private GraphSnapshot graph;
     private int maxDepth;
+    private int parallelism;
+    
+    // Límites opcionales: rutas entregadas y latencia total por ruta
+    private long maxPaths;
+    private int maxLatency;
+    
+    // Latencia mínima de cada índice al destino de la búsqueda actual (Dijkstra inverso)
+    private int[] lowerBound;
+    
+    /**
+     * Recibe cada ruta encontrada: índices de la vista en path[0 .. length - 1] y su
+     * latencia total. El arreglo se reutiliza, hay que copiarlo si se guarda.
+     * Devolver false detiene la búsqueda
+     */
+    private interface PathConsumer {
+        boolean accept(int[] path, int length, int latency);
+    }
     
     public RouteTreeFinder(Network network) {
         this.network = network;
         this.maxDepth = 10; // Evitar ciclos infinitos
+        this.parallelism = 1;
+        this.maxPaths = Long.MAX_VALUE;
+        this.maxLatency = Integer.MAX_VALUE;
     }
     
     /**
      * Encuentra todas las rutas posibles desde origen hasta destino
      */
     public List<List<Integer>> findAllPaths(int sourceId, int targetId) {
-        visited = new HashSet<>();
-        allPaths = new ArrayList<>();
+        List<List<Integer>> allPaths = new ArrayList<>();
         
         // Verificar que los nodos existen y están activos
         Node source = network.getNode(sourceId);
@@ -41,192 +70,472 @@ public class RouteTreeFinder {
             return allPaths;
         }
         
-        // Buscar todas las rutas usando DFS
-        List<Integer> currentPath = new ArrayList<>();
-        currentPath.add(sourceId);
-        visited.add(sourceId);
+        // Congelar la topología para recorrerla en formato CSR
+        graph = network.snapshot();
+        
+        int sourceIndex = graph.indexOf(sourceId);
+        int targetIndex = graph.indexOf(targetId);
+        lowerBound = computeLowerBound(targetIndex);
         
-        dfsFindPaths(sourceId, targetId, currentPath, 0);
+        // Con límite de rutas el orden importa: el corte se hace en la búsqueda secuencial
+        if (parallelism > 1 && sourceIndex != targetIndex && maxDepth > 0 && maxPaths == Long.MAX_VALUE) {
+            return findAllPathsParallel(sourceIndex, targetIndex);
+        }
+        
+        // Buscar todas las rutas usando DFS
+        enumeratePaths(sourceIndex, targetIndex, (path, length, latency) -> allPaths.add(toIds(path, length)));
         
         return allPaths;
     }
     
     /**
-     * Algoritmo DFS para encontrar todas las rutas
+     * Recorre las rutas de forma perezosa, una a la vez, respetando maxDepth,
+     * maxPaths y maxLatency. Útil cuando solo se necesitan agregados o las primeras rutas
      */
-    private void dfsFindPaths(int currentId, int targetId, List<Integer> currentPath, int depth) {
-        // Verificar límite de profundidad para evitar ciclos infinitos
-        if (depth > maxDepth) {
-            return;
+    public PathEnumerator iteratePaths(int sourceId, int targetId) {
+        graph = network.snapshot();
+        int source = graph.indexOf(sourceId);
+        int target = graph.indexOf(targetId);
+        if (source < 0 || target < 0) {
+            return PathEnumerator.empty(graph);
         }
-        
-        // Si llegamos al destino, agregar la ruta
-        if (currentId == targetId) {
-            allPaths.add(new ArrayList<>(currentPath));
-            return;
+        lowerBound = computeLowerBound(target);
+        return new PathEnumerator(graph, new int[] {source}, 0, target, maxDepth, maxLatency, maxPaths, lowerBound);
+    }
+    
+    /**
+     * Rutas cuya latencia total no supera el presupuesto, en orden DFS. La búsqueda
+     * abandona un prefijo en cuanto su latencia más la mínima restante hasta el
+     * destino excede el presupuesto, así que no depende del total de rutas posibles
+     */
+    public List<List<Integer>> findPathsWithinLatency(int sourceId, int targetId, int budget) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("El presupuesto de latencia no puede ser negativo");
+        }
+        int configured = maxLatency;
+        maxLatency = Math.min(configured, budget);
+        try {
+            return findAllPaths(sourceId, targetId);
+        } finally {
+            maxLatency = configured;
+        }
+    }
+    
+    /**
+     * Distancias de cada índice al destino sobre el grafo transpuesto. Sirven de cota
+     * inferior admisible y descartan de entrada los nodos que no llegan al destino
+     */
+    private int[] computeLowerBound(int target) {
+        Dijkstra dijkstra = new Dijkstra(graph);
+        dijkstra.runTo(target);
+        return dijkstra.getDistances();
+    }
+    
+    /**
+     * Verdadero si ninguna ruta que pase por el índice con esa latencia cabe en maxLatency
+     */
+    private boolean exceedsBudget(int index, int accumulated) {
+        int remaining = lowerBound[index];
+        return remaining == DistanceMatrix.INFINITY || accumulated + remaining > maxLatency;
+    }
+    
+    /**
+     * Flujo perezoso de rutas como listas de IDs, en el orden de findAllPaths
+     */
+    public Stream<List<Integer>> streamPaths(int sourceId, int targetId) {
+        return iteratePaths(sourceId, targetId).stream();
+    }
+    
+    /**
+     * Ruta como lista de IDs a partir de los índices de la vista
+     */
+    private List<Integer> toIds(int[] path, int length) {
+        List<Integer> ids = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            ids.add(graph.idAt(path[i]));
+        }
+        return ids;
+    }
+    
+    /**
+     * Reparte las ramas de los primeros saltos entre los hilos. Cada rama guarda sus
+     * rutas aparte y se concatenan en el orden de las ramas, que es el del DFS
+     * secuencial, así que el resultado es idéntico
+     */
+    private List<List<Integer>> findAllPathsParallel(int source, int target) {
+        List<List<Integer>> allPaths = new ArrayList<>();
+        for (Branch branch : runBranches(source, target, false)) {
+            allPaths.addAll(branch.paths);
         }
+        return allPaths;
+    }
+    
+    /**
+     * Divide la búsqueda en ramas y las resuelve en paralelo. Con buildTree cada
+     * rama construye su subárbol; si no, guarda sus rutas como listas de IDs
+     */
+    private List<Branch> runBranches(int source, int target, boolean buildTree) {
+        List<Branch> branches = new ArrayList<>();
+        splitBranches(new int[] {source}, new int[] {0}, target, branches);
         
-        // Obtener todas las conexiones activas desde el nodo actual
-        List<Connection> connections = network.getConnectionsFrom(currentId);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new BranchRangeTask(branches, target, buildTree, 0, branches.size()));
+        } finally {
+            pool.shutdown();
+        }
+        return branches;
+    }
+    
+    /**
+     * Expande los prefijos hasta SPLIT_DEPTH saltos en orden DFS, con la latencia
+     * acumulada en cada posición. Un prefijo que ya llega al destino queda como rama
+     * resuelta; el resto será una tarea
+     */
+    private void splitBranches(int[] prefix, int[] prefixLatencies, int target, List<Branch> branches) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] latencies = graph.getLatencies();
+        int hops = prefix.length;
+        int u = prefix[hops - 1];
         
-        for (Connection conn : connections) {
-            int nextId = conn.getToNode().getId();
+        for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+            int v = targets[e];
+            if (contains(prefix, v)) continue;
             
-            // Verificar que el nodo destino esté activo
-            if (!conn.getToNode().isActive()) {
-                continue;
-            }
+            int nextLatency = prefixLatencies[hops - 1] + latencies[e];
+            if (exceedsBudget(v, nextLatency)) continue;
+            
+            int[] next = Arrays.copyOf(prefix, hops + 1);
+            int[] nextLatencies = Arrays.copyOf(prefixLatencies, hops + 1);
+            next[hops] = v;
+            nextLatencies[hops] = nextLatency;
             
-            // Evitar ciclos (no visitar el mismo nodo dos veces en la misma ruta)
-            if (!visited.contains(nextId)) {
-                visited.add(nextId);
-                currentPath.add(nextId);
-                
-                dfsFindPaths(nextId, targetId, currentPath, depth + 1);
-                
-                // Backtracking
-                currentPath.remove(currentPath.size() - 1);
-                visited.remove(nextId);
+            if (v == target) {
+                Branch found = new Branch(next, nextLatencies);
+                found.resolved = true;
+                branches.add(found);
+            } else if (hops < maxDepth && hops < SPLIT_DEPTH) {
+                splitBranches(next, nextLatencies, target, branches);
+            } else if (hops < maxDepth) {
+                branches.add(new Branch(next, nextLatencies));
             }
         }
     }
     
+    private static boolean contains(int[] prefix, int index) {
+        for (int node : prefix) {
+            if (node == index) return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Entrega al consumidor las rutas simples de hasta maxDepth saltos en orden DFS,
+     * recorridas con la pila explícita de PathEnumerator.
+     * Devuelve false si el consumidor detuvo la búsqueda
+     */
+    private boolean enumeratePaths(int source, int target, PathConsumer consumer) {
+        return enumeratePaths(new int[] {source}, 0, target, consumer);
+    }
+    
+    /**
+     * Continúa el DFS desde un prefijo fijo (sin el destino) con su latencia acumulada.
+     * Solo recorre las extensiones del prefijo, por lo que varias llamadas pueden
+     * ejecutarse en paralelo sobre prefijos distintos
+     */
+    private boolean enumeratePaths(int[] prefix, int prefixLatency, int target, PathConsumer consumer) {
+        PathEnumerator paths = new PathEnumerator(graph, prefix, prefixLatency, target,
+                maxDepth, maxLatency, maxPaths, lowerBound);
+        while (paths.advance()) {
+            if (!consumer.accept(paths.getPath(), paths.getLength(), paths.getLatency())) return false;
+        }
+        return true;
+    }
+    
     /**
-     * Construye un árbol de rutas desde las rutas encontradas
+     * Construye el árbol de rutas. Es una vista NodoArbol sobre el árbol compacto
+     * de buildCompactRouteTree; null si no hay rutas
      */
     public NodoArbol buildRouteTree(int sourceId, int targetId) {
-        List<List<Integer>> paths = findAllPaths(sourceId, targetId);
-        
-        if (paths.isEmpty()) {
-            return null; // No hay rutas
+        RouteTree tree = buildCompactRouteTree(sourceId, targetId);
+        return tree == null ? null : tree.getRootView();
+    }
+    
+    /**
+     * Construye el árbol de rutas compacto durante la búsqueda: cada ruta nueva
+     * comparte con la anterior el prefijo que el DFS no cambió, así que solo se
+     * crean sus nodos nuevos y cada arista del árbol se crea una vez con la
+     * latencia de la vista. Devuelve null si no hay rutas
+     */
+    public RouteTree buildCompactRouteTree(int sourceId, int targetId) {
+        // Verificar que los nodos existen y están activos
+        Node source = network.getNode(sourceId);
+        Node target = network.getNode(targetId);
+        if (source == null || target == null || !source.isActive() || !target.isActive()) {
+            return null;
         }
         
-        Node sourceNode = network.getNode(sourceId);
-        NodoArbol root = new NodoArbol(sourceNode, 0); // La raíz no tiene latencia
+        graph = network.snapshot();
+        int sourceIndex = graph.indexOf(sourceId);
+        int targetIndex = graph.indexOf(targetId);
+        lowerBound = computeLowerBound(targetIndex);
         
-        // Construir el árbol a partir de todas las rutas
-        for (List<Integer> path : paths) {
-            addPathToTree(root, path);
+        RouteTree tree = new RouteTree(graph, sourceIndex, 0); // La raíz no tiene latencia
+        long found;
+        if (parallelism > 1 && sourceIndex != targetIndex && maxDepth > 0 && maxPaths == Long.MAX_VALUE) {
+            found = buildRouteTreeParallel(tree, sourceIndex, targetIndex);
+        } else {
+            found = addPaths(tree, 0, new PathEnumerator(graph, new int[] {sourceIndex}, 0, targetIndex,
+                    maxDepth, maxLatency, maxPaths, lowerBound));
         }
+        if (found == 0) return null;
         
-        return root;
+        tree.trimToSize();
+        return tree;
     }
     
     /**
-     * Agrega una ruta al árbol
+     * Cuelga de la raíz del árbol (en la posición dada de las rutas) todas las rutas
+     * del recorrido. chain[i] es el nodo del árbol de la posición i de la ruta actual.
+     * Devuelve el número de rutas agregadas
      */
-    private void addPathToTree(NodoArbol root, List<Integer> path) {
-        NodoArbol current = root;
+    private long addPaths(RouteTree tree, int rootPosition, PathEnumerator paths) {
+        int[] chain = new int[Math.max(maxDepth, rootPosition) + 1];
+        chain[rootPosition] = tree.getRoot();
         
-        for (int i = 1; i < path.size(); i++) {
-            int nodeId = path.get(i);
-            Node node = network.getNode(nodeId);
-            
-            // Buscar si ya existe un hijo con este nodo
-            NodoArbol existingChild = findChildByNodeId(current, nodeId);
+        while (paths.advance()) {
+            int[] path = paths.getPath();
+            for (int i = Math.max(paths.getChangedPosition(), rootPosition + 1); i < paths.getLength(); i++) {
+                chain[i] = tree.addChild(chain[i - 1], path[i], paths.getLatencyAt(i) - paths.getLatencyAt(i - 1));
+            }
+        }
+        return paths.getEmittedCount();
+    }
+    
+    /**
+     * Cada rama arma su subárbol en paralelo; luego se copian en orden de rama,
+     * creando los nodos de los primeros saltos una sola vez
+     */
+    private long buildRouteTreeParallel(RouteTree tree, int source, int target) {
+        int[] chain = new int[SPLIT_DEPTH + 1];
+        chain[0] = tree.getRoot();
+        int[] previous = {source};
+        long found = 0;
+        
+        for (Branch branch : runBranches(source, target, true)) {
+            if (branch.subtree == null) continue;
             
-            if (existingChild != null) {
-                // El nodo ya existe en este nivel, continuar
-                current = existingChild;
-            } else {
-                // Crear nuevo nodo hijo
-                int latency = getLatencyBetweenNodes(path.get(i-1), nodeId);
-                NodoArbol newChild = new NodoArbol(node, latency);
-                current.addChild(newChild);
-                current = newChild;
+            // Los prefijos de ramas consecutivas comparten sus primeras posiciones
+            int base = branch.prefix.length - 1;
+            int shared = 1;
+            while (shared < base && shared < previous.length - 1 && previous[shared] == branch.prefix[shared]) {
+                shared++;
+            }
+            for (int i = shared; i < base; i++) {
+                chain[i] = tree.addChild(chain[i - 1], branch.prefix[i], branch.latencies[i] - branch.latencies[i - 1]);
             }
+            tree.attach(chain[base - 1], branch.subtree);
+            previous = branch.prefix;
+            found += branch.found;
         }
+        return found;
     }
     
     /**
-     * Busca un hijo por ID de nodo
+     * Construye el árbol de rutas como DAG, compartiendo los subárboles idénticos.
+     * Cada nodo se consigna al abandonarlo el DFS, cuando sus hijos ya están
+     * completos, así que nunca se guarda el árbol expandido. Devuelve null si no hay rutas
      */
-    private NodoArbol findChildByNodeId(NodoArbol parent, int nodeId) {
-        for (NodoArbol child : parent.getChildren()) {
-            if (child.getNode().getId() == nodeId) {
-                return child;
+    public RouteDag buildRouteDag(int sourceId, int targetId) {
+        // Verificar que los nodos existen y están activos
+        Node source = network.getNode(sourceId);
+        Node target = network.getNode(targetId);
+        if (source == null || target == null || !source.isActive() || !target.isActive()) {
+            return null;
+        }
+        
+        graph = network.snapshot();
+        int sourceIndex = graph.indexOf(sourceId);
+        int targetIndex = graph.indexOf(targetId);
+        lowerBound = computeLowerBound(targetIndex);
+        
+        RouteDag dag = new RouteDag(graph);
+        PathEnumerator paths = new PathEnumerator(graph, new int[] {sourceIndex}, 0, targetIndex,
+                maxDepth, maxLatency, maxPaths, lowerBound);
+        
+        // Por posición de la ruta actual: nodo abierto, latencia de su arista y sus hijos ya consignados
+        int levels = maxDepth + 1;
+        int[] nodes = new int[levels];
+        int[] edges = new int[levels];
+        int[][] children = new int[levels][];
+        int[][] childLatencies = new int[levels][];
+        int[] counts = new int[levels];
+        int open = 0;
+        int leaf = -1;
+        int root = -1;
+        
+        while (paths.advance()) {
+            int[] path = paths.getPath();
+            int length = paths.getLength();
+            if (leaf < 0) {
+                leaf = dag.intern(targetIndex, new int[0], new int[0], 0);
+            }
+            if (length == 1) {
+                root = leaf; // Origen igual al destino
+                break;
+            }
+            
+            // Las posiciones que cambiaron ya no tendrán más hijos: se consignan
+            int changed = Math.min(paths.getChangedPosition(), length - 1);
+            for (int i = open - 1; i >= changed; i--) {
+                int id = dag.intern(nodes[i], children[i], childLatencies[i], counts[i]);
+                addDagChild(children, childLatencies, counts, i - 1, id, edges[i]);
+            }
+            for (int i = Math.min(open, changed); i < length - 1; i++) {
+                nodes[i] = path[i];
+                edges[i] = i == 0 ? 0 : paths.getLatencyAt(i) - paths.getLatencyAt(i - 1);
+                counts[i] = 0;
             }
+            open = length - 1;
+            addDagChild(children, childLatencies, counts, length - 2, leaf,
+                    paths.getLatencyAt(length - 1) - paths.getLatencyAt(length - 2));
         }
-        return null;
+        if (paths.getEmittedCount() == 0) return null;
+        
+        for (int i = open - 1; i >= 0; i--) {
+            int id = dag.intern(nodes[i], children[i], childLatencies[i], counts[i]);
+            if (i == 0) {
+                root = id;
+            } else {
+                addDagChild(children, childLatencies, counts, i - 1, id, edges[i]);
+            }
+        }
+        dag.setRoot(root);
+        return dag;
     }
     
     /**
-     * Obtiene la latencia entre dos nodos
+     * Agrega un hijo consignado a la lista del nodo abierto en la posición dada
      */
-    private int getLatencyBetweenNodes(int fromId, int toId) {
-        Connection conn = network.getConnection(fromId, toId);
-        return conn != null ? conn.getLatency() : 0;
+    private static void addDagChild(int[][] children, int[][] childLatencies, int[] counts,
+                                    int position, int child, int latency) {
+        int count = counts[position];
+        if (children[position] == null) {
+            children[position] = new int[4];
+            childLatencies[position] = new int[4];
+        } else if (count == children[position].length) {
+            children[position] = Arrays.copyOf(children[position], count * 2);
+            childLatencies[position] = Arrays.copyOf(childLatencies[position], count * 2);
+        }
+        children[position][count] = child;
+        childLatencies[position][count] = latency;
+        counts[position] = count + 1;
     }
     
     /**
-     * Encuentra todas las rutas y las ordena por latencia total
+     * Encuentra todas las rutas y las ordena por latencia total. Cada ruta se
+     * decora con la latencia acumulada en la búsqueda y el orden es estable, así
+     * que los empates conservan el orden DFS
      */
     public List<List<Integer>> findAllPathsSorted(int sourceId, int targetId) {
-        List<List<Integer>> paths = findAllPaths(sourceId, targetId);
-        
-        // Ordenar por latencia total
-        paths.sort((path1, path2) -> {
-            int latency1 = calculateTotalLatency(path1);
-            int latency2 = calculateTotalLatency(path2);
-            return Integer.compare(latency1, latency2);
-        });
+        List<RankedPath> ranked = new ArrayList<>();
+        PathEnumerator paths = iteratePaths(sourceId, targetId);
+        while (paths.advance()) {
+            ranked.add(new RankedPath(paths.getPathIds(), paths.getLatency(), paths.getEmittedCount()));
+        }
+        ranked.sort(RankedPath.BY_LATENCY);
         
-        return paths;
+        List<List<Integer>> sorted = new ArrayList<>(ranked.size());
+        for (RankedPath path : ranked) {
+            sorted.add(path.ids);
+        }
+        return sorted;
     }
     
     /**
-     * Calcula la latencia total de una ruta
+     * Las k rutas de menor latencia, de menor a mayor (empates en orden DFS). Un
+     * montículo de tamaño k guarda las mejores vistas hasta el momento, así que la
+     * memoria no depende del número de rutas
      */
-    private int calculateTotalLatency(List<Integer> path) {
-        int total = 0;
-        for (int i = 0; i < path.size() - 1; i++) {
-            Connection conn = network.getConnection(path.get(i), path.get(i + 1));
-            if (conn != null) {
-                total += conn.getLatency();
-            }
+    public List<List<Integer>> findFastestPaths(int sourceId, int targetId, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k debe ser al menos 1");
+        }
+        
+        // Montículo de máximos: la raíz es la peor de las k guardadas
+        PriorityQueue<RankedPath> heap = new PriorityQueue<>(k, RankedPath.BY_LATENCY.reversed());
+        PathEnumerator paths = iteratePaths(sourceId, targetId);
+        while (paths.advance()) {
+            if (heap.size() == k && paths.getLatency() >= heap.peek().latency) continue;
+            if (heap.size() == k) heap.poll();
+            heap.add(new RankedPath(paths.getPathIds(), paths.getLatency(), paths.getEmittedCount()));
+        }
+        
+        List<RankedPath> best = new ArrayList<>(heap);
+        best.sort(RankedPath.BY_LATENCY);
+        List<List<Integer>> fastest = new ArrayList<>(best.size());
+        for (RankedPath path : best) {
+            fastest.add(path.ids);
         }
-        return total;
+        return fastest;
+    }
+    
+    /**
+     * Recorre las rutas una sola vez acumulando sus estadísticas, sin guardarlas
+     */
+    public RouteStatistics collectRouteStatistics(int sourceId, int targetId) {
+        RouteStatistics statistics = new RouteStatistics();
+        statistics.acceptAll(iteratePaths(sourceId, targetId));
+        return statistics;
     }
     
     /**
      * Obtiene estadísticas de las rutas encontradas
      */
     public String getRouteStatistics(int sourceId, int targetId) {
-        List<List<Integer>> paths = findAllPaths(sourceId, targetId);
+        RouteStatistics statistics = collectRouteStatistics(sourceId, targetId);
+        long pathCount = statistics.getCount();
         
-        if (paths.isEmpty()) {
+        if (pathCount == 0) {
             return "No se encontraron rutas entre los nodos especificados.";
         }
         
         StringBuilder stats = new StringBuilder();
         stats.append("=== ESTADÍSTICAS DE RUTAS ===\n\n");
-        stats.append("Número total de rutas: ").append(paths.size()).append("\n\n");
-        
-        // Calcular estadísticas
-        int minLatency = Integer.MAX_VALUE;
-        int maxLatency = 0;
-        int totalLatency = 0;
-        int minHops = Integer.MAX_VALUE;
-        int maxHops = 0;
-        
-        for (List<Integer> path : paths) {
-            int latency = calculateTotalLatency(path);
-            int hops = path.size() - 1;
-            
-            minLatency = Math.min(minLatency, latency);
-            maxLatency = Math.max(maxLatency, latency);
-            totalLatency += latency;
-            minHops = Math.min(minHops, hops);
-            maxHops = Math.max(maxHops, hops);
+        stats.append("Número total de rutas: ").append(pathCount);
+        if (statistics.isTruncated()) {
+            stats.append(" (límite alcanzado)");
         }
+        stats.append("\n\n");
         
-        double avgLatency = (double) totalLatency / paths.size();
+        stats.append("Latencia mínima: ").append(statistics.getMinLatency()).append("ms\n");
+        stats.append("Latencia máxima: ").append(statistics.getMaxLatency()).append("ms\n");
+        stats.append("Latencia promedio: ").append(String.format("%.1f", statistics.getAverageLatency())).append("ms\n");
+        stats.append("Latencia mediana: ").append(statistics.getLatencyPercentile(50)).append("ms\n");
+        stats.append("Percentil 90: ").append(statistics.getLatencyPercentile(90)).append("ms\n");
+        stats.append("Percentil 99: ").append(statistics.getLatencyPercentile(99)).append("ms\n");
+        stats.append("Saltos mínimos: ").append(statistics.getMinHops()).append("\n");
+        stats.append("Saltos máximos: ").append(statistics.getMaxHops()).append("\n");
+        
+        // Histograma de latencias
+        stats.append("\nDistribución de latencias:\n");
+        long[] histogram = statistics.getLatencyHistogram(HISTOGRAM_BUCKETS);
+        double width = statistics.getBucketWidth(HISTOGRAM_BUCKETS);
+        for (int b = 0; b < histogram.length; b++) {
+            int from = statistics.getMinLatency() + (int) Math.ceil(b * width);
+            int to = b == histogram.length - 1 ? statistics.getMaxLatency()
+                    : statistics.getMinLatency() + (int) Math.ceil((b + 1) * width) - 1;
+            if (from > statistics.getMaxLatency()) break;
+            stats.append(String.format("  %6d - %6d ms: %d%n", from, to, histogram[b]));
+        }
         
-        stats.append("Latencia mínima: ").append(minLatency).append("ms\n");
-        stats.append("Latencia máxima: ").append(maxLatency).append("ms\n");
-        stats.append("Latencia promedio: ").append(String.format("%.1f", avgLatency)).append("ms\n");
-        stats.append("Saltos mínimos: ").append(minHops).append("\n");
-        stats.append("Saltos máximos: ").append(maxHops).append("\n");
+        // Rutas por número de saltos
+        stats.append("\nRutas por saltos:\n");
+        long[] hops = statistics.getHopHistogram();
+        for (int h = statistics.getMinHops(); h < hops.length; h++) {
+            stats.append(String.format("  %2d saltos: %d%n", h, hops[h]));
+        }
         
         return stats.toString();
     }
@@ -237,4 +546,125 @@ public class RouteTreeFinder {
     public void setMaxDepth(int maxDepth) {
         this.maxDepth = maxDepth;
     }
+    
+    /**
+     * Máximo de rutas a entregar; la búsqueda se detiene al alcanzarlo
+     */
+    public void setMaxPaths(long maxPaths) {
+        if (maxPaths < 1) {
+            throw new IllegalArgumentException("El máximo de rutas debe ser al menos 1");
+        }
+        this.maxPaths = maxPaths;
+    }
+    
+    /**
+     * Latencia total máxima de una ruta; las ramas que la superan se descartan
+     */
+    public void setMaxLatency(int maxLatency) {
+        if (maxLatency < 0) {
+            throw new IllegalArgumentException("La latencia máxima no puede ser negativa");
+        }
+        this.maxLatency = maxLatency;
+    }
+    
+    /**
+     * Número de hilos para enumerar rutas; con 1 la búsqueda es secuencial
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("El paralelismo debe ser al menos 1");
+        }
+        this.parallelism = parallelism;
+    }
+    
+    public int getParallelism() {
+        return parallelism;
+    }
+    
+    /**
+     * Ruta decorada con su latencia total y su posición en el orden DFS
+     */
+    private static class RankedPath {
+        private static final Comparator<RankedPath> BY_LATENCY =
+                Comparator.<RankedPath>comparingInt(path -> path.latency).thenComparingLong(path -> path.order);
+        
+        private final List<Integer> ids;
+        private final int latency;
+        private final long order;
+        
+        RankedPath(List<Integer> ids, int latency, long order) {
+            this.ids = ids;
+            this.latency = latency;
+            this.order = order;
+        }
+    }
+    
+    /**
+     * Rama de la búsqueda paralela: prefijo fijo con sus latencias acumuladas y,
+     * según el modo, las rutas que lo extienden o el subárbol que cuelga de él
+     */
+    private static class Branch {
+        private final int[] prefix;
+        private final int[] latencies;
+        private final List<List<Integer>> paths = new ArrayList<>();
+        private RouteTree subtree;
+        private long found;
+        private boolean resolved;
+        
+        Branch(int[] prefix, int[] latencies) {
+            this.prefix = prefix;
+            this.latencies = latencies;
+        }
+    }
+    
+    /**
+     * Tarea que divide la lista de ramas; cada hoja usa su propio conjunto de visitados
+     */
+    private class BranchRangeTask extends RecursiveAction {
+        private final List<Branch> branches;
+        private final int target;
+        private final boolean buildTree;
+        private final int from;
+        private final int to;
+        
+        BranchRangeTask(List<Branch> branches, int target, boolean buildTree, int from, int to) {
+            this.branches = branches;
+            this.target = target;
+            this.buildTree = buildTree;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to <= from) return;
+            if (to - from == 1) {
+                solve(branches.get(from));
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BranchRangeTask(branches, target, buildTree, from, mid),
+                    new BranchRangeTask(branches, target, buildTree, mid, to));
+        }
+        
+        private void solve(Branch branch) {
+            int base = branch.prefix.length - 1;
+            if (!buildTree) {
+                if (branch.resolved) {
+                    branch.paths.add(toIds(branch.prefix, branch.prefix.length));
+                } else {
+                    enumeratePaths(branch.prefix, branch.latencies[base], target,
+                            (path, length, latency) -> branch.paths.add(toIds(path, length)));
+                }
+                return;
+            }
+            
+            // Subárbol propio con latencias relativas al padre de su raíz
+            RouteTree subtree = new RouteTree(graph, branch.prefix[base],
+                    branch.latencies[base] - branch.latencies[base - 1]);
+            branch.found = branch.resolved ? 1 : addPaths(subtree, base, new PathEnumerator(graph, branch.prefix,
+                    branch.latencies[base], target, maxDepth, maxLatency, maxPaths, lowerBound));
+            branch.subtree = branch.found > 0 ? subtree : null;
+        }
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,238 @@
+package main.algorithms;
+
+import main.model.GraphSnapshot;
+import main.model.Network;
+import main.model.Node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Componentes fuertemente conexas de la topología dirigida (Tarjan iterativo, O(V+E))
+ * y su grafo de condensación. Tarjan numera las componentes en orden topológico
+ * inverso: toda arista entre componentes va de un número mayor a uno menor
+ */
+public class StronglyConnectedComponents {
+    private final GraphSnapshot graph;
+    private final int n;
+    
+    // Componente de cada índice y miembros de cada componente en formato CSR
+    private int[] componentOf;
+    private int[] memberOffsets;
+    private int[] members;
+    private int componentCount;
+    
+    // Grafo de condensación (DAG) sin aristas repetidas
+    private int[] dagOffsets;
+    private int[] dagTargets;
+    
+    public StronglyConnectedComponents(Network network) {
+        this(network.snapshot());
+    }
+    
+    public StronglyConnectedComponents(GraphSnapshot graph) {
+        this.graph = graph;
+        this.n = graph.getNodeCount();
+    }
+    
+    /**
+     * Calcula las componentes y el grafo de condensación
+     */
+    public void execute() {
+        computeComponents();
+        buildMembers();
+        buildCondensation();
+    }
+    
+    private void computeComponents() {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        
+        componentOf = new int[n];
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] cursor = new int[n];
+        int[] callStack = new int[n];
+        int[] sccStack = new int[n];
+        boolean[] onStack = new boolean[n];
+        Arrays.fill(index, -1);
+        
+        int time = 0;
+        int sccTop = 0;
+        componentCount = 0;
+        
+        for (int root = 0; root < n; root++) {
+            if (index[root] >= 0) continue;
+            
+            int callTop = 0;
+            callStack[callTop++] = root;
+            index[root] = low[root] = time++;
+            cursor[root] = offsets[root];
+            sccStack[sccTop++] = root;
+            onStack[root] = true;
+            
+            while (callTop > 0) {
+                int u = callStack[callTop - 1];
+                if (cursor[u] < offsets[u + 1]) {
+                    int v = targets[cursor[u]++];
+                    if (index[v] < 0) {
+                        index[v] = low[v] = time++;
+                        cursor[v] = offsets[v];
+                        sccStack[sccTop++] = v;
+                        onStack[v] = true;
+                        callStack[callTop++] = v;
+                    } else if (onStack[v]) {
+                        low[u] = Math.min(low[u], index[v]);
+                    }
+                    continue;
+                }
+                
+                // u terminó: si es raíz de su componente, desapilarla completa
+                callTop--;
+                if (low[u] == index[u]) {
+                    int w;
+                    do {
+                        w = sccStack[--sccTop];
+                        onStack[w] = false;
+                        componentOf[w] = componentCount;
+                    } while (w != u);
+                    componentCount++;
+                }
+                if (callTop > 0) {
+                    int parent = callStack[callTop - 1];
+                    low[parent] = Math.min(low[parent], low[u]);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Agrupa los índices por componente con conteo (orden estable por índice)
+     */
+    private void buildMembers() {
+        memberOffsets = new int[componentCount + 1];
+        for (int i = 0; i < n; i++) {
+            memberOffsets[componentOf[i] + 1]++;
+        }
+        for (int c = 0; c < componentCount; c++) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        members = new int[n];
+        int[] fill = Arrays.copyOf(memberOffsets, componentCount);
+        for (int i = 0; i < n; i++) {
+            members[fill[componentOf[i]]++] = i;
+        }
+    }
+    
+    /**
+     * Aristas entre componentes distintas, sin duplicados, en formato CSR
+     */
+    private void buildCondensation() {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        
+        dagOffsets = new int[componentCount + 1];
+        int[] buffer = new int[16];
+        int count = 0;
+        
+        // lastSeen evita repetir la misma componente destino dentro de una fila
+        int[] lastSeen = new int[componentCount];
+        Arrays.fill(lastSeen, -1);
+        
+        for (int c = 0; c < componentCount; c++) {
+            dagOffsets[c] = count;
+            for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++) {
+                int u = members[m];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int d = componentOf[targets[e]];
+                    if (d == c || lastSeen[d] == c) continue;
+                    lastSeen[d] = c;
+                    if (count == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, count * 2);
+                    }
+                    buffer[count++] = d;
+                }
+            }
+        }
+        dagOffsets[componentCount] = count;
+        dagTargets = Arrays.copyOf(buffer, count);
+    }
+    
+    public int getComponentCount() { return componentCount; }
+    
+    /**
+     * Componente del índice de la vista
+     */
+    public int getComponent(int index) { return componentOf[index]; }
+    
+    /**
+     * Componente de un nodo por ID, o -1 si no está activo
+     */
+    public int getComponentOfNode(int nodeId) {
+        int index = graph.indexOf(nodeId);
+        return index < 0 ? -1 : componentOf[index];
+    }
+    
+    public int getComponentSize(int component) {
+        return memberOffsets[component + 1] - memberOffsets[component];
+    }
+    
+    /**
+     * Condición necesaria de alcanzabilidad: falso garantiza que no hay camino.
+     * Por el orden topológico inverso basta comparar los números de componente
+     */
+    public boolean mayReach(int fromIndex, int toIndex) {
+        return componentOf[fromIndex] >= componentOf[toIndex];
+    }
+    
+    /**
+     * Nodos de cada componente, de la primera a la última
+     */
+    public List<List<Node>> getComponents() {
+        List<List<Node>> components = new ArrayList<>();
+        for (int c = 0; c < componentCount; c++) {
+            List<Node> component = new ArrayList<>(getComponentSize(c));
+            for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++) {
+                component.add(graph.getNode(members[m]));
+            }
+            components.add(component);
+        }
+        return components;
+    }
+    
+    /**
+     * Componentes sin aristas entrantes en la condensación (solo emiten tráfico)
+     */
+    public int getSourceComponentCount() {
+        boolean[] hasIncoming = new boolean[componentCount];
+        for (int d : dagTargets) {
+            hasIncoming[d] = true;
+        }
+        int sources = 0;
+        for (boolean incoming : hasIncoming) {
+            if (!incoming) sources++;
+        }
+        return sources;
+    }
+    
+    /**
+     * Componentes sin aristas salientes en la condensación (solo reciben tráfico)
+     */
+    public int getSinkComponentCount() {
+        int sinks = 0;
+        for (int c = 0; c < componentCount; c++) {
+            if (dagOffsets[c] == dagOffsets[c + 1]) sinks++;
+        }
+        return sinks;
+    }
+    
+    public GraphSnapshot getGraph() { return graph; }
+    
+    // Acceso directo a los resultados (solo lectura)
+    public int[] getComponentOf() { return componentOf; }
+    public int[] getMemberOffsets() { return memberOffsets; }
+    public int[] getMembers() { return members; }
+    public int[] getDagOffsets() { return dagOffsets; }
+    public int[] getDagTargets() { return dagTargets; }
+}
\ No newline at end of file
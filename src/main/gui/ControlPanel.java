@@ -289,7 +289,7 @@ public class ControlPanel extends JPanel {
                         currentNetwork.addNodeWithId(node.getId(), node.getName(), node.getType(), 
                                                    node.getPosition().x, node.getPosition().y);
                         if (!node.isActive()) {
-                            currentNetwork.getNode(node.getId()).setActive(false);
+                            currentNetwork.removeNode(node.getId());
                         }
                     }
                     
@@ -297,7 +297,7 @@ public class ControlPanel extends JPanel {
                     for (Connection conn : importedNetwork.getAllConnections()) {
                         currentNetwork.addConnection(conn.getFromNode().getId(), conn.getToNode().getId(), conn.getLatency());
                         if (!conn.isActive()) {
-                            currentNetwork.getConnection(conn.getFromNode().getId(), conn.getToNode().getId()).setActive(false);
+                            currentNetwork.simulateConnectionFailure(conn.getFromNode().getId(), conn.getToNode().getId());
                         }
                     }
                     
@@ -377,7 +377,7 @@ public class ControlPanel extends JPanel {
         
         if (selectedNode != null) {
             network.removeNode(selectedNode.getId());
-            mainWindow.updateFloydWarshall();
+            mainWindow.updateFloydWarshallForNodeFailure(selectedNode.getId());
             mainWindow.showInfo("Falla simulada en nodo: " + selectedNode.getName());
         }
     }
@@ -401,7 +401,8 @@ public class ControlPanel extends JPanel {
             );
             
             if (success) {
-                mainWindow.updateFloydWarshall();
+                mainWindow.updateFloydWarshallForConnectionFailure(selectedConnection.getFromNode().getId(),
+                                                                   selectedConnection.getToNode().getId());
                 mainWindow.showInfo("Falla simulada en conexión: " + 
                     selectedConnection.getFromNode().getName() + " -> " + 
                     selectedConnection.getToNode().getName());
@@ -463,7 +464,8 @@ public class ControlPanel extends JPanel {
             );
             
             if (success) {
-                mainWindow.updateFloydWarshall();
+                mainWindow.updateFloydWarshallForConnection(selectedConnection.getFromNode().getId(),
+                                                           selectedConnection.getToNode().getId());
                 mainWindow.showInfo("Conexión restaurada: " + 
                     selectedConnection.getFromNode().getName() + " -> " + 
                     selectedConnection.getToNode().getName());
@@ -515,7 +517,7 @@ public class ControlPanel extends JPanel {
             
                     if (result == JOptionPane.YES_OPTION) {
             network.removeNode(selectedNode.getId());
-            mainWindow.updateFloydWarshall();
+            mainWindow.updateFloydWarshallForNodeFailure(selectedNode.getId());
         }
         }
     }
@@ -542,7 +544,8 @@ public class ControlPanel extends JPanel {
             if (result == JOptionPane.YES_OPTION) {
                 network.removeConnection(selectedConnection.getFromNode().getId(), 
                                        selectedConnection.getToNode().getId());
-                mainWindow.updateFloydWarshall();
+                mainWindow.updateFloydWarshallForConnectionFailure(selectedConnection.getFromNode().getId(),
+                                                                   selectedConnection.getToNode().getId());
             }
         }
     }
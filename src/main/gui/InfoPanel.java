@@ -3,17 +3,23 @@ package main.gui;
 import main.model.Network;
 import main.model.Node;
 import main.model.Connection;
+import main.algorithms.Centrality;
 import main.algorithms.FloydWarshall;
+import main.algorithms.ResilienceAnalysis;
+import main.algorithms.StronglyConnectedComponents;
+import main.model.GraphSnapshot;
 
 import javax.swing.*;
 import java.awt.*;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Panel de información que muestra estadísticas y rutas
  */
 public class InfoPanel extends JPanel {
+    // Cantidad de nodos listados en cada ranking de centralidad
+    private static final int TOP_K = 5;
+    
     private MainWindow mainWindow;
     private Network network;
     private FloydWarshall floydWarshall;
@@ -26,6 +32,10 @@ public class InfoPanel extends JPanel {
     private JButton refreshButton;
     private JTabbedPane tabbedPane;
     
+    // Cálculo de centralidad en segundo plano
+    private SwingWorker<Boolean, Void> centralityWorker;
+    private Centrality runningCentrality;
+    
     public InfoPanel(MainWindow mainWindow) {
         this.mainWindow = mainWindow;
         this.network = mainWindow.getNetwork();
@@ -121,15 +131,82 @@ public class InfoPanel extends JPanel {
         }
         stats.append("\n");
         
-        // Nodo más central
-        if (!network.getActiveNodes().isEmpty()) {
-            Node centralNode = floydWarshall.getMostCentralNode();
-            if (centralNode != null) {
-                stats.append("Nodo más central: ").append(centralNode.getName()).append("\n");
+        updateCentrality(stats.toString());
+    }
+    
+    /**
+     * Calcula la centralidad fuera del hilo de la interfaz y la agrega al texto al terminar.
+     * Un cálculo anterior que siga en curso se cancela
+     */
+    private void updateCentrality(String baseText) {
+        if (centralityWorker != null) {
+            runningCentrality.cancel();
+            centralityWorker.cancel(false);
+        }
+        
+        if (network.getActiveNodes().isEmpty()) {
+            centralityWorker = null;
+            runningCentrality = null;
+            infoArea.setText(baseText);
+            return;
+        }
+        
+        Centrality centrality = new Centrality(network);
+        runningCentrality = centrality;
+        infoArea.setText(baseText + "Calculando centralidad...\n");
+        
+        centralityWorker = new SwingWorker<Boolean, Void>() {
+            @Override
+            protected Boolean doInBackground() {
+                return centrality.compute(Runtime.getRuntime().availableProcessors());
+            }
+            
+            @Override
+            protected void done() {
+                // Un cálculo ya terminado no se puede cancelar: si su done() quedó en
+                // cola tras iniciar otro, no debe pisar el texto del nuevo
+                if (isCancelled() || this != centralityWorker) return;
+                try {
+                    if (get()) {
+                        infoArea.setText(baseText + formatCentrality(centrality));
+                    }
+                } catch (Exception e) {
+                    infoArea.setText(baseText + "Error al calcular centralidad: " + e.getMessage() + "\n");
+                }
             }
+        };
+        centralityWorker.execute();
+    }
+    
+    private String formatCentrality(Centrality centrality) {
+        StringBuilder text = new StringBuilder();
+        GraphSnapshot graph = centrality.getGraph();
+        
+        text.append("=== CENTRALIDAD ===\n");
+        if (centrality.getDiameter() >= 0) {
+            text.append("Radio: ").append(centrality.getRadius()).append("ms | ");
+            text.append("Diámetro: ").append(centrality.getDiameter()).append("ms\n");
         }
         
-        infoArea.setText(stats.toString());
+        int[] mostCentral = Centrality.topK(centrality.getCloseness(), 1);
+        if (mostCentral.length > 0) {
+            text.append("Nodo más central: ").append(graph.getNode(mostCentral[0]).getName()).append("\n");
+        }
+        text.append("\n");
+        
+        appendRanking(text, "Cercanía", centrality.getCloseness(), graph);
+        appendRanking(text, "Armónica", centrality.getHarmonic(), graph);
+        appendRanking(text, "Intermediación", centrality.getBetweenness(), graph);
+        return text.toString();
+    }
+    
+    private void appendRanking(StringBuilder text, String title, double[] scores, GraphSnapshot graph) {
+        text.append("Top ").append(TOP_K).append(" ").append(title).append(":\n");
+        int[] top = Centrality.topK(scores, TOP_K);
+        for (int i = 0; i < top.length; i++) {
+            text.append(String.format("  %d. %s (%.4f)\n", i + 1, graph.getNode(top[i]).getName(), scores[top[i]]));
+        }
+        text.append("\n");
     }
     
     private void updateRoutes() {
@@ -141,33 +218,34 @@ public class InfoPanel extends JPanel {
         } else {
             routes.append("=== RUTAS MÁS CORTAS ===\n\n");
             
-            // Mostrar rutas desde cada nodo
-            for (Node source : network.getActiveNodes()) {
+            // Mostrar rutas desde cada nodo recorriendo la matriz con un solo cursor
+            List<Node> activeNodes = network.getActiveNodes();
+            FloydWarshall.PathCursor cursor = floydWarshall.newPathCursor();
+            for (Node source : activeNodes) {
                 routes.append("Desde ").append(source.getName()).append(":\n");
                 
-                Map<Integer, List<Integer>> paths = floydWarshall.getAllShortestPathsFrom(source.getId());
-                
-                if (paths.isEmpty()) {
-                    routes.append("  No hay rutas disponibles\n");
-                } else {
-                    for (Map.Entry<Integer, List<Integer>> entry : paths.entrySet()) {
-                        Node dest = network.getNode(entry.getKey());
-                        List<Integer> path = entry.getValue();
-                        double distance = floydWarshall.getShortestDistance(source.getId(), dest.getId());
-                        
-                        routes.append(String.format("  -> %s: ", dest.getName()));
-                        
-                        // Mostrar ruta
-                        for (int i = 0; i < path.size(); i++) {
-                            Node pathNode = network.getNode(path.get(i));
-                            routes.append(pathNode.getName());
-                            if (i < path.size() - 1) {
-                                routes.append(" -> ");
-                            }
+                boolean anyPath = false;
+                for (Node dest : activeNodes) {
+                    if (dest == source || !cursor.reset(source.getId(), dest.getId())) continue;
+                    anyPath = true;
+                    double distance = floydWarshall.getShortestDistance(source.getId(), dest.getId());
+                    
+                    routes.append(String.format("  -> %s: ", dest.getName()));
+                    
+                    // Mostrar ruta
+                    while (cursor.hasNext()) {
+                        Node pathNode = network.getNode(cursor.nextNodeId());
+                        routes.append(pathNode.getName());
+                        if (cursor.hasNext()) {
+                            routes.append(" -> ");
                         }
-                        
-                        routes.append(String.format(" (%.0fms)\n", distance));
                     }
+                    
+                    routes.append(String.format(" (%.0fms)\n", distance));
+                }
+                
+                if (!anyPath) {
+                    routes.append("  No hay rutas disponibles\n");
                 }
                 routes.append("\n");
             }
@@ -247,6 +325,23 @@ public class InfoPanel extends JPanel {
             failures.append("Todos los nodos están conectados.\n\n");
         }
         
+        // Componentes fuertemente conexas: grupos con rutas de ida y vuelta entre todos sus nodos
+        // Solo se necesitan los conteos: basta Tarjan, sin construir el cierre transitivo
+        StronglyConnectedComponents strong = new StronglyConnectedComponents(network);
+        strong.execute();
+        failures.append("Componentes fuertemente conexas: ").append(strong.getComponentCount()).append("\n");
+        if (strong.getComponentCount() > 1) {
+            failures.append("  Solo emiten tráfico: ").append(strong.getSourceComponentCount())
+                    .append(" | Solo reciben tráfico: ").append(strong.getSinkComponentCount()).append("\n");
+        }
+        failures.append("\n");
+        
+        // Enlaces y nodos críticos de toda la red en una sola pasada
+        ResilienceAnalysis resilience = new ResilienceAnalysis(network);
+        resilience.execute();
+        failures.append("=== ELEMENTOS CRÍTICOS ===\n");
+        failures.append(resilience.generateReport()).append("\n");
+        
         // Conexiones fallidas
         List<Connection> failedConnections = network.getFailedConnections();
         failures.append("Conexiones fallidas: ").append(failedConnections.size()).append("\n");
@@ -3,6 +3,7 @@ package main.gui;
 import com.formdev.flatlaf.FlatLightLaf;
 import main.model.Network;
 import main.algorithms.FloydWarshall;
+import main.algorithms.RouteQueryEngine;
 
 import javax.swing.*;
 import java.awt.*;
@@ -15,6 +16,7 @@ import java.awt.event.WindowEvent;
 public class MainWindow extends JFrame {
     private Network network;
     private FloydWarshall floydWarshall;
+    private RouteQueryEngine routeQueryEngine;
     
     // Paneles principales
     private ControlPanel controlPanel;
@@ -32,6 +34,7 @@ public class MainWindow extends JFrame {
         // Inicializar modelo
         network = new Network();
         floydWarshall = new FloydWarshall(network);
+        routeQueryEngine = new RouteQueryEngine(network);
         
         // Configurar ventana
         setupWindow();
@@ -89,6 +92,13 @@ public class MainWindow extends JFrame {
         return floydWarshall;
     }
     
+    /**
+     * Consultas de una sola ruta sin precalcular todos los pares
+     */
+    public RouteQueryEngine getRouteQueryEngine() {
+        return routeQueryEngine;
+    }
+    
     public NetworkPanel getNetworkPanel() {
         return networkPanel;
     }
@@ -102,6 +112,9 @@ public class MainWindow extends JFrame {
      */
     public void updateFloydWarshall() {
         floydWarshall = new FloydWarshall(network);
+        floydWarshall.setCompactMode(true); // 16 bits cuando las latencias lo permiten
+        floydWarshall.setAlgorithm(FloydWarshall.Algorithm.AUTO); // Dijkstra por origen en redes dispersas
+        floydWarshall.setComponentMode(true); // bloques por componente si la red está fragmentada
         floydWarshall.execute();
         
         // Actualizar paneles
@@ -109,6 +122,43 @@ public class MainWindow extends JFrame {
         infoPanel.updateInfo();
     }
     
+    /**
+     * Actualiza las rutas tras agregar, restaurar o abaratar una conexión.
+     * Usa la actualización incremental y recalcula todo solo si no es posible
+     */
+    public void updateFloydWarshallForConnection(int fromNodeId, int toNodeId) {
+        if (floydWarshall.applyConnectionUpdate(network, fromNodeId, toNodeId)) {
+            networkPanel.repaint();
+            infoPanel.updateInfo();
+        } else {
+            updateFloydWarshall();
+        }
+    }
+    
+    /**
+     * Actualiza las rutas tras la caída o eliminación de una conexión
+     */
+    public void updateFloydWarshallForConnectionFailure(int fromNodeId, int toNodeId) {
+        if (floydWarshall.applyConnectionFailure(network, fromNodeId, toNodeId)) {
+            networkPanel.repaint();
+            infoPanel.updateInfo();
+        } else {
+            updateFloydWarshall();
+        }
+    }
+    
+    /**
+     * Actualiza las rutas tras la caída o eliminación de un nodo
+     */
+    public void updateFloydWarshallForNodeFailure(int nodeId) {
+        if (floydWarshall.applyNodeFailure(network, nodeId)) {
+            networkPanel.repaint();
+            infoPanel.updateInfo();
+        } else {
+            updateFloydWarshall();
+        }
+    }
+    
     /**
      * Muestra un mensaje de información
      */
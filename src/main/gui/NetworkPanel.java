@@ -166,7 +166,7 @@ public class NetworkPanel extends JPanel {
             try {
                 Network network = mainWindow.getNetwork();
                 network.addConnection(connectionStartNode.getId(), clickedNode.getId(), connectionLatency);
-                mainWindow.updateFloydWarshall();
+                mainWindow.updateFloydWarshallForConnection(connectionStartNode.getId(), clickedNode.getId());
                 
                 // Salir del modo de edición
                 setAddConnectionMode(false, 0);
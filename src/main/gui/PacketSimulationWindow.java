@@ -2,13 +2,14 @@ package main.gui;
 
 import main.model.Network;
 import main.model.Node;
-import main.algorithms.FloydWarshall;
+import main.algorithms.RouteQueryEngine;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.List;
+import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
 
@@ -18,7 +19,7 @@ import java.util.TimerTask;
 public class PacketSimulationWindow extends JFrame {
     private MainWindow mainWindow;
     private Network network;
-    private FloydWarshall floydWarshall;
+    private RouteQueryEngine routeEngine;
     private Node sourceNode;
     private Node destinationNode;
     
@@ -40,7 +41,7 @@ public class PacketSimulationWindow extends JFrame {
     public PacketSimulationWindow(MainWindow mainWindow, Node source, Node destination) {
         this.mainWindow = mainWindow;
         this.network = mainWindow.getNetwork();
-        this.floydWarshall = mainWindow.getFloydWarshall();
+        this.routeEngine = mainWindow.getRouteQueryEngine();
         this.sourceNode = source;
         this.destinationNode = destination;
         
@@ -148,8 +149,8 @@ public class PacketSimulationWindow extends JFrame {
     }
     
     private void initializeSimulation() {
-        // Obtener ruta usando Floyd-Warshall
-        path = floydWarshall.getShortestPath(sourceNode.getId(), destinationNode.getId());
+        // Obtener ruta con Dijkstra desde el origen (árbol en caché)
+        path = routeEngine.getShortestPath(sourceNode.getId(), destinationNode.getId());
         
         if (path == null) {
             logArea.append("❌ ERROR: No existe ruta entre " + sourceNode.getName() + " y " + destinationNode.getName() + "\n");
@@ -175,35 +176,25 @@ public class PacketSimulationWindow extends JFrame {
             }
         }
         
-        double totalDistance = floydWarshall.getShortestDistance(sourceNode.getId(), destinationNode.getId());
+        double totalDistance = routeEngine.getShortestDistance(sourceNode.getId(), destinationNode.getId());
         logArea.append("\nDistancia total: " + totalDistance + "ms\n");
         logArea.append("Número de saltos: " + (path.size() - 1) + "\n\n");
         
-        logArea.append("📋 MATRIZ DE SIGUIENTE NODO (Floyd-Warshall):\n");
-        int[][] nextMatrix = floydWarshall.getNextMatrix();
+        // Solo se necesita la fila del origen: su tabla de reenvío
+        logArea.append("📋 TABLA DE SIGUIENTE NODO DESDE " + sourceNode.getName() + ":\n");
         List<Node> activeNodes = network.getActiveNodes();
+        Map<Integer, Integer> nextHops = routeEngine.getNextHops(sourceNode.getId());
         
-        // Mostrar encabezados
-        logArea.append("     ");
         for (Node node : activeNodes) {
-            logArea.append(String.format("%-8s", node.getName()));
-        }
-        logArea.append("\n");
-        
-        // Mostrar matriz
-        for (int i = 0; i < nextMatrix.length; i++) {
-            Node source = activeNodes.get(i);
-            logArea.append(String.format("%-5s", source.getName()));
+            if (node == sourceNode) continue;
             
-            for (int j = 0; j < nextMatrix[i].length; j++) {
-                if (nextMatrix[i][j] == -1) {
-                    logArea.append("X       ");
-                } else {
-                    Node next = activeNodes.get(nextMatrix[i][j]);
-                    logArea.append(String.format("%-8s", next.getName()));
-                }
+            Integer nextHop = nextHops.get(node.getId());
+            logArea.append(String.format("%-8s", node.getName()));
+            if (nextHop == null) {
+                logArea.append("X\n");
+            } else {
+                logArea.append(network.getNode(nextHop).getName() + "\n");
             }
-            logArea.append("\n");
         }
         
         logArea.append("\n🎯 PREPARADO PARA SIMULACIÓN\n");
@@ -229,7 +220,7 @@ public class PacketSimulationWindow extends JFrame {
             
             // Iniciar simulación visual
             mainWindow.getNetworkPanel().startVisualSimulation(path);
-            
+        
         } else if (currentStep == path.size() - 1) {
             // Último paso - destino
             logArea.append("🎯 PASO " + (currentStep + 1) + ": PAQUETE EN DESTINO\n");
@@ -243,7 +234,7 @@ public class PacketSimulationWindow extends JFrame {
             nextStepButton.setEnabled(false);
             autoPlayButton.setEnabled(false);
             statusLabel.setText("Simulación completada");
-            
+        
         } else {
             // Pasos intermedios
             Node previousNode = network.getNode(path.get(currentStep - 1));
@@ -254,8 +245,9 @@ public class PacketSimulationWindow extends JFrame {
             logArea.append("   Nodo anterior: " + previousNode.getName() + "\n");
             logArea.append("   Próximo nodo: " + nextNode.getName() + "\n");
             
-            // Obtener latencia de la conexión
-            double latency = floydWarshall.getShortestDistance(previousNode.getId(), currentNode.getId());
+            // Latencia del tramo: diferencia de distancias en el árbol del origen
+            double latency = routeEngine.getShortestDistance(sourceNode.getId(), currentNode.getId())
+                    - routeEngine.getShortestDistance(sourceNode.getId(), previousNode.getId());
             logArea.append("   Latencia de llegada: " + latency + "ms\n");
             logArea.append("   Acción: Reenviando paquete al siguiente nodo\n");
             logArea.append("   Estado: En tránsito\n\n");
@@ -0,0 +1,116 @@
+package main.gui;
+
+import main.model.RouteTree;
+
+import javax.swing.event.TreeModelListener;
+import javax.swing.tree.TreeModel;
+import javax.swing.tree.TreePath;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Modelo de JTree respaldado directamente por el árbol de rutas compacto. Los
+ * nodos visibles se crean al pedirlos el JTree y solo se guardan los hijos de los
+ * nodos ya consultados, así que abrir un árbol enorme no lo copia entero
+ */
+public class RouteTreeModel implements TreeModel {
+    private final RouteTree tree;
+    
+    // Hijos de cada nodo consultado, para acceder por posición en O(1)
+    private final Map<Integer, int[]> childrenCache = new HashMap<>();
+    
+    public RouteTreeModel(RouteTree tree) {
+        this.tree = tree;
+    }
+    
+    @Override
+    public Object getRoot() {
+        return new Entry(tree.getRoot());
+    }
+    
+    @Override
+    public Object getChild(Object parent, int index) {
+        return new Entry(childrenOf(((Entry) parent).id)[index]);
+    }
+    
+    @Override
+    public int getChildCount(Object parent) {
+        int id = ((Entry) parent).id;
+        return tree.isLeaf(id) ? 0 : childrenOf(id).length;
+    }
+    
+    @Override
+    public boolean isLeaf(Object node) {
+        return tree.isLeaf(((Entry) node).id);
+    }
+    
+    @Override
+    public int getIndexOfChild(Object parent, Object child) {
+        if (!(parent instanceof Entry) || !(child instanceof Entry)) return -1;
+        int[] children = childrenOf(((Entry) parent).id);
+        int id = ((Entry) child).id;
+        for (int i = 0; i < children.length; i++) {
+            if (children[i] == id) return i;
+        }
+        return -1;
+    }
+    
+    private int[] childrenOf(int id) {
+        int[] children = childrenCache.get(id);
+        if (children == null) {
+            children = new int[tree.getChildCount(id)];
+            int i = 0;
+            for (int child = tree.getFirstChild(id); child >= 0; child = tree.getNextSibling(child)) {
+                children[i++] = child;
+            }
+            childrenCache.put(id, children);
+        }
+        return children;
+    }
+    
+    public RouteTree getTree() { return tree; }
+    
+    // El árbol de rutas no cambia una vez construido y el JTree no es editable
+    @Override
+    public void valueForPathChanged(TreePath path, Object newValue) {}
+    
+    @Override
+    public void addTreeModelListener(TreeModelListener listener) {}
+    
+    @Override
+    public void removeTreeModelListener(TreeModelListener listener) {}
+    
+    /**
+     * Nodo visible: identificador en el árbol compacto. El texto se calcula al
+     * dibujarlo, con el formato de la vista de árbol de la ventana
+     */
+    private class Entry {
+        private final int id;
+        
+        Entry(int id) {
+            this.id = id;
+        }
+        
+        @Override
+        public String toString() {
+            String text = tree.getNode(id).getName();
+            if (tree.getLatency(id) > 0) {
+                text += " (" + tree.getLatency(id) + "ms)";
+            }
+            if (tree.isLeaf(id)) {
+                text += " [Total: " + tree.getTotalLatency(id) + "ms]";
+            }
+            return text;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Entry && ((Entry) obj).id == id;
+        }
+        
+        @Override
+        public int hashCode() {
+            return id;
+        }
+    }
+}
\ No newline at end of file
@@ -2,22 +2,31 @@ package main.gui;
 
 import main.model.Network;
 import main.model.Node;
-import main.model.NodoArbol;
+import main.model.RouteTree;
 import main.algorithms.RouteTreeFinder;
 
 import javax.swing.*;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreeModel;
 import javax.swing.tree.TreePath;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 
 /**
  * Ventana para mostrar el árbol de rutas desde un origen hasta un destino
  */
 public class RouteTreeWindow extends JFrame {
+    // Filas que se expanden al mostrar un árbol; el resto se abre a mano
+    private static final int MAX_EXPANDED_ROWS = 2000;
+    
+    // Nodos a partir de los cuales el árbol no se imprime como texto
+    private static final int MAX_TEXT_NODES = 50000;
+    
     private MainWindow mainWindow;
     private Network network;
     private RouteTreeFinder routeFinder;
@@ -25,6 +34,7 @@ public class RouteTreeWindow extends JFrame {
     // Componentes
     private JComboBox<Node> sourceCombo;
     private JComboBox<Node> targetCombo;
+    private JSpinner latencyBudgetSpinner;
     private JButton findRoutesButton;
     private JButton showStatisticsButton;
     private JTextArea treeTextArea;
@@ -37,6 +47,7 @@ public class RouteTreeWindow extends JFrame {
         this.mainWindow = mainWindow;
         this.network = mainWindow.getNetwork();
         this.routeFinder = new RouteTreeFinder(network);
+        this.routeFinder.setParallelism(Runtime.getRuntime().availableProcessors());
         
         setupWindow();
         setupComponents();
@@ -58,6 +69,9 @@ public class RouteTreeWindow extends JFrame {
         sourceCombo = new JComboBox<>();
         targetCombo = new JComboBox<>();
         
+        // Presupuesto de latencia (0 = sin límite)
+        latencyBudgetSpinner = new JSpinner(new SpinnerNumberModel(0, 0, 100000, 5));
+        
         // Botones
         findRoutesButton = new JButton("Encontrar Todas las Rutas");
         showStatisticsButton = new JButton("Mostrar Estadísticas");
@@ -75,6 +89,10 @@ public class RouteTreeWindow extends JFrame {
         routeTree = new JTree();
         routeTree.setFont(new Font("Arial", Font.PLAIN, 12));
         
+        // Con altura de fila fija el JTree solo calcula las filas visibles
+        routeTree.setRowHeight(18);
+        routeTree.setLargeModel(true);
+        
         // Panel con pestañas
         tabbedPane = new JTabbedPane();
         
@@ -109,13 +127,20 @@ public class RouteTreeWindow extends JFrame {
         
         // Segunda fila
         gbc.gridx = 0; gbc.gridy = 1; gbc.gridwidth = 2;
-        controlPanel.add(findRoutesButton, gbc);
+        controlPanel.add(new JLabel("Latencia máxima (ms, 0 = sin límite):"), gbc);
         
         gbc.gridx = 2; gbc.gridy = 1; gbc.gridwidth = 2;
-        controlPanel.add(showStatisticsButton, gbc);
+        controlPanel.add(latencyBudgetSpinner, gbc);
         
         // Tercera fila
-        gbc.gridx = 0; gbc.gridy = 2; gbc.gridwidth = 4;
+        gbc.gridx = 0; gbc.gridy = 2; gbc.gridwidth = 2;
+        controlPanel.add(findRoutesButton, gbc);
+        
+        gbc.gridx = 2; gbc.gridy = 2; gbc.gridwidth = 2;
+        controlPanel.add(showStatisticsButton, gbc);
+        
+        // Cuarta fila
+        gbc.gridx = 0; gbc.gridy = 3; gbc.gridwidth = 4;
         controlPanel.add(statusLabel, gbc);
         
         // Configurar pestañas
@@ -200,10 +225,11 @@ public class RouteTreeWindow extends JFrame {
         
         // Mostrar cursor de espera
         setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        applyLatencyBudget();
         
         try {
             // Construir árbol de rutas
-            NodoArbol routeTree = routeFinder.buildRouteTree(source.getId(), target.getId());
+            RouteTree routeTree = routeFinder.buildCompactRouteTree(source.getId(), target.getId());
             
             if (routeTree == null) {
                 treeTextArea.setText("No se encontraron rutas entre " + source.getName() + " y " + target.getName());
@@ -212,15 +238,19 @@ public class RouteTreeWindow extends JFrame {
             } else {
                 // Mostrar árbol en texto
                 String treeText = "Árbol de rutas desde " + source.getName() + " hasta " + target.getName() + ":\n\n";
-                treeText += routeTree.printTree();
+                if (routeTree.size() <= MAX_TEXT_NODES) {
+                    treeText += routeTree.getRootView().printTree();
+                } else {
+                    treeText += "El árbol tiene " + routeTree.size() + " nodos y no se muestra como texto; use la pestaña Árbol Visual\n";
+                }
                 treeTextArea.setText(treeText);
                 
-                // Mostrar árbol visual
-                DefaultMutableTreeNode rootNode = buildVisualTree(routeTree);
-                this.routeTree.setModel(new DefaultTreeModel(rootNode));
+                // Mostrar árbol visual sin copiarlo
+                RouteTreeModel model = new RouteTreeModel(routeTree);
+                this.routeTree.setModel(model);
                 
-                // Expandir todos los nodos
-                expandAllNodes(this.routeTree, new TreePath(rootNode));
+                // Expandir los primeros niveles hasta el límite de filas
+                expandBounded(this.routeTree, MAX_EXPANDED_ROWS);
                 
                 // Mostrar estadísticas
                 showStatistics();
@@ -228,7 +258,7 @@ public class RouteTreeWindow extends JFrame {
             
             statusLabel.setText("Rutas encontradas de " + source.getName() + " a " + target.getName());
             statusLabel.setForeground(Color.GREEN);
-            
+        
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, "Error al encontrar rutas: " + e.getMessage(), 
                 "Error", JOptionPane.ERROR_MESSAGE);
@@ -239,33 +269,26 @@ public class RouteTreeWindow extends JFrame {
         }
     }
     
-    private DefaultMutableTreeNode buildVisualTree(NodoArbol routeNode) {
-        String nodeText = routeNode.getNode().getName();
-        if (routeNode.getLatency() > 0) {
-            nodeText += " (" + routeNode.getLatency() + "ms)";
-        }
-        if (routeNode.isLeaf()) {
-            nodeText += " [Total: " + routeNode.getTotalLatency() + "ms]";
-        }
-        
-        DefaultMutableTreeNode treeNode = new DefaultMutableTreeNode(nodeText);
-        
-        for (NodoArbol child : routeNode.getChildren()) {
-            treeNode.add(buildVisualTree(child));
-        }
-        
-        return treeNode;
-    }
-    
-    private void expandAllNodes(JTree tree, TreePath parent) {
-        tree.expandPath(parent);
-        Object node = parent.getLastPathComponent();
-        DefaultMutableTreeNode treeNode = (DefaultMutableTreeNode) node;
-        
-        for (int i = 0; i < treeNode.getChildCount(); i++) {
-            DefaultMutableTreeNode child = (DefaultMutableTreeNode) treeNode.getChildAt(i);
-            TreePath path = parent.pathByAddingChild(child);
-            expandAllNodes(tree, path);
+    /**
+     * Expande por niveles, en anchura, mientras el JTree tenga menos de maxRows
+     * filas. Solo se consultan los nodos que llegan a mostrarse
+     */
+    private void expandBounded(JTree tree, int maxRows) {
+        TreeModel model = tree.getModel();
+        Deque<TreePath> pending = new ArrayDeque<>();
+        pending.add(new TreePath(model.getRoot()));
+        
+        while (!pending.isEmpty()) {
+            TreePath path = pending.poll();
+            Object node = path.getLastPathComponent();
+            int childCount = model.getChildCount(node);
+            if (childCount == 0) continue;
+            if (tree.getRowCount() + childCount > maxRows) break;
+            
+            tree.expandPath(path);
+            for (int i = 0; i < childCount; i++) {
+                pending.add(path.pathByAddingChild(model.getChild(node, i)));
+            }
         }
     }
     
@@ -278,6 +301,7 @@ public class RouteTreeWindow extends JFrame {
             return;
         }
         
+        applyLatencyBudget();
         String stats = routeFinder.getRouteStatistics(source.getId(), target.getId());
         statisticsArea.setText(stats);
         
@@ -285,12 +309,22 @@ public class RouteTreeWindow extends JFrame {
         tabbedPane.setSelectedIndex(2);
     }
     
+    /**
+     * Pasa el presupuesto de latencia al buscador; con presupuesto la búsqueda
+     * poda las ramas que no pueden cumplirlo
+     */
+    private void applyLatencyBudget() {
+        int budget = (Integer) latencyBudgetSpinner.getValue();
+        routeFinder.setMaxLatency(budget > 0 ? budget : Integer.MAX_VALUE);
+    }
+    
     /**
      * Actualiza la lista de nodos cuando cambia la red
      */
     public void updateNetwork() {
         this.network = mainWindow.getNetwork();
         this.routeFinder = new RouteTreeFinder(network);
+        this.routeFinder.setParallelism(Runtime.getRuntime().availableProcessors());
         updateNodeLists();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,288 @@
+package main.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vista inmutable de la topología activa en formato CSR (compressed sparse row).
+ * Los nodos se identifican por un índice denso 0..n-1 y las aristas salientes
+ * del nodo i ocupan las posiciones offsets[i]..offsets[i+1]-1 de targets/latencies.
+ * Los arreglos devueltos por los getters son internos y de solo lectura.
+ */
+public class GraphSnapshot {
+    // Rango máximo (relativo a n) para usar una tabla directa id -> índice
+    private static final int DIRECT_TABLE_SLACK = 1024;
+    
+    private final long version;
+    private final Node[] nodes;
+    private final int[] indexToId;
+    
+    // Mapeo id -> índice: tabla directa desplazada por idBase o, si los IDs están
+    // muy dispersos, tabla hash abierta con sondeo lineal (sin objetos por entrada)
+    private final int idBase;
+    private final int[] idToIndex;
+    private final int[] hashIds;
+    private final int[] hashIndices;
+    
+    // Aristas salientes
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] latencies;
+    
+    // Aristas entrantes (grafo transpuesto)
+    private final int[] inOffsets;
+    private final int[] inSources;
+    private final int[] inLatencies;
+    
+    GraphSnapshot(List<Node> activeNodes, Map<Integer, List<Connection>> outgoing, long version) {
+        this.version = version;
+        int n = activeNodes.size();
+        
+        // Mapeo denso de IDs
+        nodes = activeNodes.toArray(new Node[0]);
+        indexToId = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexToId[i] = nodes[i].getId();
+        }
+        IdTable table = new IdTable(indexToId);
+        idBase = table.base;
+        idToIndex = table.direct;
+        hashIds = table.hashIds;
+        hashIndices = table.hashIndices;
+        
+        // Construir filas CSR; las conexiones paralelas se colapsan a la de menor latencia
+        offsets = new int[n + 1];
+        int[] slot = new int[n];
+        Arrays.fill(slot, -1);
+        int[] rowTargets = new int[16];
+        int[] rowLatencies = new int[16];
+        int edgeCount = 0;
+        
+        for (int i = 0; i < n; i++) {
+            offsets[i] = edgeCount;
+            List<Connection> list = outgoing.get(indexToId[i]);
+            if (list != null) {
+                for (Connection conn : list) {
+                    if (!conn.isActive()) continue;
+                    int to = indexOf(conn.getToNode().getId());
+                    if (to < 0) continue; // destino inactivo
+                    
+                    if (slot[to] >= offsets[i]) {
+                        rowLatencies[slot[to]] = Math.min(rowLatencies[slot[to]], conn.getLatency());
+                        continue;
+                    }
+                    if (edgeCount == rowTargets.length) {
+                        rowTargets = Arrays.copyOf(rowTargets, edgeCount * 2);
+                        rowLatencies = Arrays.copyOf(rowLatencies, edgeCount * 2);
+                    }
+                    slot[to] = edgeCount;
+                    rowTargets[edgeCount] = to;
+                    rowLatencies[edgeCount] = conn.getLatency();
+                    edgeCount++;
+                }
+            }
+        }
+        offsets[n] = edgeCount;
+        targets = Arrays.copyOf(rowTargets, edgeCount);
+        latencies = Arrays.copyOf(rowLatencies, edgeCount);
+        
+        inOffsets = countIncoming();
+        inSources = new int[targets.length];
+        inLatencies = new int[targets.length];
+        fillIncoming();
+    }
+    
+    /**
+     * Subvista inducida por los índices dados, en ese orden; conserva la versión
+     */
+    private GraphSnapshot(GraphSnapshot parent, int[] indices) {
+        this.version = parent.version;
+        int n = indices.length;
+        
+        nodes = new Node[n];
+        indexToId = new int[n];
+        for (int i = 0; i < n; i++) {
+            nodes[i] = parent.nodes[indices[i]];
+            indexToId[i] = parent.indexToId[indices[i]];
+        }
+        IdTable table = new IdTable(indexToId);
+        idBase = table.base;
+        idToIndex = table.direct;
+        hashIds = table.hashIds;
+        hashIndices = table.hashIndices;
+        
+        // Contar y luego copiar las aristas con ambos extremos dentro de la subvista
+        offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            int row = indices[i];
+            for (int e = parent.offsets[row]; e < parent.offsets[row + 1]; e++) {
+                if (indexOf(parent.indexToId[parent.targets[e]]) >= 0) {
+                    offsets[i + 1]++;
+                }
+            }
+            offsets[i + 1] += offsets[i];
+        }
+        targets = new int[offsets[n]];
+        latencies = new int[offsets[n]];
+        for (int i = 0; i < n; i++) {
+            int row = indices[i];
+            int pos = offsets[i];
+            for (int e = parent.offsets[row]; e < parent.offsets[row + 1]; e++) {
+                int to = indexOf(parent.indexToId[parent.targets[e]]);
+                if (to >= 0) {
+                    targets[pos] = to;
+                    latencies[pos++] = parent.latencies[e];
+                }
+            }
+        }
+        
+        inOffsets = countIncoming();
+        inSources = new int[targets.length];
+        inLatencies = new int[targets.length];
+        fillIncoming();
+    }
+    
+    /**
+     * Crea la subvista inducida por un conjunto de índices de esta vista
+     */
+    public GraphSnapshot subgraph(int[] indices) {
+        return new GraphSnapshot(this, indices);
+    }
+    
+    /**
+     * Desplazamientos del grafo transpuesto: conteo de aristas por destino
+     */
+    private int[] countIncoming() {
+        int n = indexToId.length;
+        int[] counts = new int[n + 1];
+        for (int e = 0; e < targets.length; e++) {
+            counts[targets[e] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            counts[i + 1] += counts[i];
+        }
+        return counts;
+    }
+    
+    /**
+     * Copia cada arista saliente en la fila de su destino del grafo transpuesto
+     */
+    private void fillIncoming() {
+        int n = indexToId.length;
+        int[] fill = Arrays.copyOf(inOffsets, n);
+        for (int i = 0; i < n; i++) {
+            for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+                int pos = fill[targets[e]]++;
+                inSources[pos] = i;
+                inLatencies[pos] = latencies[e];
+            }
+        }
+    }
+    
+    /**
+     * Índice denso del nodo, o -1 si no está activo en esta vista
+     */
+    public int indexOf(int nodeId) {
+        if (idToIndex != null) {
+            long slot = (long) nodeId - idBase;
+            return slot >= 0 && slot < idToIndex.length ? idToIndex[(int) slot] : -1;
+        }
+        int mask = hashIds.length - 1;
+        for (int slot = hashSlot(nodeId, hashIds.length); hashIndices[slot] >= 0; slot = (slot + 1) & mask) {
+            if (hashIds[slot] == nodeId) {
+                return hashIndices[slot];
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Posición inicial del ID en la tabla hash; mezcla los bits para IDs consecutivos
+     */
+    private static int hashSlot(int nodeId, int capacity) {
+        int h = nodeId * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (capacity - 1);
+    }
+    
+    public int idAt(int index) { return indexToId[index]; }
+    
+    public Node getNode(int index) { return nodes[index]; }
+    
+    public int getNodeCount() { return indexToId.length; }
+    
+    public int getEdgeCount() { return targets.length; }
+    
+    public long getVersion() { return version; }
+    
+    public int outDegree(int index) { return offsets[index + 1] - offsets[index]; }
+    
+    public int inDegree(int index) { return inOffsets[index + 1] - inOffsets[index]; }
+    
+    /**
+     * Latencia de la arista directa entre dos índices, o -1 si no existe
+     */
+    public int getLatency(int fromIndex, int toIndex) {
+        for (int e = offsets[fromIndex]; e < offsets[fromIndex + 1]; e++) {
+            if (targets[e] == toIndex) {
+                return latencies[e];
+            }
+        }
+        return -1;
+    }
+    
+    // Acceso directo a los arreglos CSR (solo lectura)
+    public int[] getIndexToId() { return indexToId; }
+    public int[] getOffsets() { return offsets; }
+    public int[] getTargets() { return targets; }
+    public int[] getLatencies() { return latencies; }
+    public int[] getInOffsets() { return inOffsets; }
+    public int[] getInSources() { return inSources; }
+    public int[] getInLatencies() { return inLatencies; }
+    
+    /**
+     * Mapeo id -> índice construido a partir de indexToId: tabla directa
+     * desplazada por base o, si los IDs están muy dispersos, tabla hash
+     */
+    private static class IdTable {
+        private int base;
+        private int[] direct;
+        private int[] hashIds;
+        private int[] hashIndices;
+        
+        IdTable(int[] indexToId) {
+            int n = indexToId.length;
+            int minId = Integer.MAX_VALUE;
+            int maxId = Integer.MIN_VALUE;
+            for (int i = 0; i < n; i++) {
+                minId = Math.min(minId, indexToId[i]);
+                maxId = Math.max(maxId, indexToId[i]);
+            }
+            
+            long span = n == 0 ? 0 : (long) maxId - minId + 1;
+            if (span <= 4L * n + DIRECT_TABLE_SLACK) {
+                base = n == 0 ? 0 : minId;
+                direct = new int[(int) span];
+                Arrays.fill(direct, -1);
+                for (int i = 0; i < n; i++) {
+                    direct[indexToId[i] - base] = i;
+                }
+                return;
+            }
+            
+            // Capacidad potencia de dos con factor de carga <= 0.5
+            int capacity = Integer.highestOneBit(Math.max(2, n) * 2 - 1) << 1;
+            hashIds = new int[capacity];
+            hashIndices = new int[capacity];
+            Arrays.fill(hashIndices, -1);
+            for (int i = 0; i < n; i++) {
+                int slot = hashSlot(indexToId[i], capacity);
+                while (hashIndices[slot] >= 0) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                hashIds[slot] = indexToId[i];
+                hashIndices[slot] = i;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -11,16 +11,28 @@ public class Network {
     private List<Connection> connections;
     private int nextNodeId;
     
+    // Índices de adyacencia: conexiones salientes/entrantes por nodo y par (origen, destino)
+    private Map<Integer, List<Connection>> outgoing;
+    private Map<Integer, List<Connection>> incoming;
+    private Map<Long, Connection> connectionIndex;
+    
+    // Versión de la topología, aumenta con cada cambio estructural
+    private long version;
+    
     public Network() {
         this.nodes = new HashMap<>();
         this.connections = new ArrayList<>();
         this.nextNodeId = 1;
+        this.outgoing = new HashMap<>();
+        this.incoming = new HashMap<>();
+        this.connectionIndex = new HashMap<>();
     }
     
     // Métodos para nodos
     public Node addNode(String name, Node.NodeType type, int x, int y) {
         Node node = new Node(nextNodeId++, name, type, new java.awt.Point(x, y));
         nodes.put(node.getId(), node);
+        version++;
         return node;
     }
     
@@ -30,6 +42,7 @@ public class Network {
         if (id >= nextNodeId) {
             nextNodeId = id + 1;
         }
+        version++;
         return node;
     }
     
@@ -55,10 +68,14 @@ public class Network {
         node.setActive(false);
         
         // Desactivar todas las conexiones que involucran este nodo
-        connections.stream()
-                .filter(conn -> conn.getFromNode().getId() == nodeId || conn.getToNode().getId() == nodeId)
-                .forEach(conn -> conn.setActive(false));
+        for (Connection conn : outgoing.getOrDefault(nodeId, Collections.emptyList())) {
+            conn.setActive(false);
+        }
+        for (Connection conn : incoming.getOrDefault(nodeId, Collections.emptyList())) {
+            conn.setActive(false);
+        }
         
+        version++;
         return true;
     }
     
@@ -73,6 +90,12 @@ public class Network {
         
         Connection connection = new Connection(fromNode, toNode, latency);
         connections.add(connection);
+        
+        // Mantener los índices; el par conserva la primera conexión agregada
+        outgoing.computeIfAbsent(fromNodeId, k -> new ArrayList<>()).add(connection);
+        incoming.computeIfAbsent(toNodeId, k -> new ArrayList<>()).add(connection);
+        connectionIndex.putIfAbsent(pairKey(fromNodeId, toNodeId), connection);
+        version++;
         return connection;
     }
     
@@ -87,14 +110,11 @@ public class Network {
     }
     
     public boolean removeConnection(int fromNodeId, int toNodeId) {
-        Connection connection = connections.stream()
-                .filter(conn -> conn.getFromNode().getId() == fromNodeId && 
-                               conn.getToNode().getId() == toNodeId)
-                .findFirst()
-                .orElse(null);
+        Connection connection = getConnection(fromNodeId, toNodeId);
         
         if (connection != null) {
             connection.setActive(false);
+            version++;
             return true;
         }
         return false;
@@ -116,36 +136,75 @@ public class Network {
     public void clear() {
         nodes.clear();
         connections.clear();
+        outgoing.clear();
+        incoming.clear();
+        connectionIndex.clear();
         nextNodeId = 1;
+        version++;
+    }
+    
+    /**
+     * Versión actual de la topología
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Congela la topología activa en una vista CSR inmutable
+     */
+    public GraphSnapshot snapshot() {
+        return new GraphSnapshot(getActiveNodes(), outgoing, version);
     }
     
     // Obtener conexiones de un nodo específico
     public List<Connection> getConnectionsFrom(int nodeId) {
-        return connections.stream()
-                .filter(conn -> conn.getFromNode().getId() == nodeId && conn.isActive())
-                .collect(Collectors.toList());
+        return filterActive(outgoing.get(nodeId));
     }
     
     public List<Connection> getConnectionsTo(int nodeId) {
-        return connections.stream()
-                .filter(conn -> conn.getToNode().getId() == nodeId && conn.isActive())
-                .collect(Collectors.toList());
+        return filterActive(incoming.get(nodeId));
     }
     
     // Verificar si existe conexión entre dos nodos
     public boolean hasConnection(int fromNodeId, int toNodeId) {
-        return connections.stream()
-                .anyMatch(conn -> conn.getFromNode().getId() == fromNodeId && 
-                                 conn.getToNode().getId() == toNodeId && 
-                                 conn.isActive());
+        Connection connection = connectionIndex.get(pairKey(fromNodeId, toNodeId));
+        if (connection == null) return false;
+        if (connection.isActive()) return true;
+        
+        // Puede existir una conexión paralela activa con el mismo par
+        for (Connection conn : outgoing.get(fromNodeId)) {
+            if (conn.getToNode().getId() == toNodeId && conn.isActive()) {
+                return true;
+            }
+        }
+        return false;
     }
     
     public Connection getConnection(int fromNodeId, int toNodeId) {
-        return connections.stream()
-                .filter(conn -> conn.getFromNode().getId() == fromNodeId && 
-                               conn.getToNode().getId() == toNodeId)
-                .findFirst()
-                .orElse(null);
+        return connectionIndex.get(pairKey(fromNodeId, toNodeId));
+    }
+    
+    /**
+     * Filtra las conexiones activas de una lista del índice
+     */
+    private List<Connection> filterActive(List<Connection> indexed) {
+        List<Connection> result = new ArrayList<>();
+        if (indexed == null) return result;
+        
+        for (Connection conn : indexed) {
+            if (conn.isActive()) {
+                result.add(conn);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Clave única para el par (origen, destino)
+     */
+    private static long pairKey(int fromNodeId, int toNodeId) {
+        return ((long) fromNodeId << 32) | (toNodeId & 0xFFFFFFFFL);
     }
     
     /**
@@ -155,6 +214,7 @@ public class Network {
         Connection connection = getConnection(fromNodeId, toNodeId);
         if (connection != null && connection.isActive()) {
             connection.setActive(false);
+            version++;
             return true;
         }
         return false;
@@ -167,6 +227,20 @@ public class Network {
         Connection connection = getConnection(fromNodeId, toNodeId);
         if (connection != null && !connection.isActive()) {
             connection.setActive(true);
+            version++;
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Cambia la latencia de una conexión existente
+     */
+    public boolean updateConnectionLatency(int fromNodeId, int toNodeId, int latency) {
+        Connection connection = getConnection(fromNodeId, toNodeId);
+        if (connection != null) {
+            connection.setLatency(latency);
+            version++;
             return true;
         }
         return false;
@@ -182,7 +256,7 @@ public class Network {
     }
     
     /**
-     * Verifica si la red está completamente conectada
+     * Verifica si la red está completamente conectada, ignorando el sentido de los enlaces
      */
     public boolean isNetworkConnected() {
         List<Node> activeNodes = getActiveNodes();
@@ -198,16 +272,12 @@ public class Network {
         
         while (!queue.isEmpty()) {
             int currentId = queue.poll();
-            Node currentNode = getNode(currentId);
             
-            // Obtener todas las conexiones activas desde este nodo
-            for (Connection conn : getActiveConnections()) {
-                if (conn.getFromNode().getId() == currentId) {
-                    int neighborId = conn.getToNode().getId();
-                    if (!visited.contains(neighborId)) {
-                        visited.add(neighborId);
-                        queue.add(neighborId);
-                    }
+            // Vecinos por conexiones activas en ambos sentidos
+            for (int neighborId : getNeighborIds(currentId)) {
+                if (!visited.contains(neighborId)) {
+                    visited.add(neighborId);
+                    queue.add(neighborId);
                 }
             }
         }
@@ -216,7 +286,8 @@ public class Network {
     }
     
     /**
-     * Obtiene los componentes conectados de la red
+     * Obtiene los componentes conectados de la red (débilmente conexos: se ignora el
+     * sentido de los enlaces, así el resultado no depende del orden de recorrido)
      */
     public List<List<Node>> getConnectedComponents() {
         List<Node> activeNodes = getActiveNodes();
@@ -235,15 +306,12 @@ public class Network {
                 while (!queue.isEmpty()) {
                     int currentId = queue.poll();
                     
-                    // Buscar vecinos conectados
-                    for (Connection conn : getActiveConnections()) {
-                        if (conn.getFromNode().getId() == currentId) {
-                            int neighborId = conn.getToNode().getId();
-                            if (!visited.contains(neighborId)) {
-                                visited.add(neighborId);
-                                queue.add(neighborId);
-                                component.add(getNode(neighborId));
-                            }
+                    // Buscar vecinos conectados en ambos sentidos
+                    for (int neighborId : getNeighborIds(currentId)) {
+                        if (!visited.contains(neighborId)) {
+                            visited.add(neighborId);
+                            queue.add(neighborId);
+                            component.add(getNode(neighborId));
                         }
                     }
                 }
@@ -255,6 +323,24 @@ public class Network {
         return components;
     }
     
+    /**
+     * IDs de los nodos activos unidos a nodeId por una conexión activa, en cualquier sentido
+     */
+    private List<Integer> getNeighborIds(int nodeId) {
+        List<Integer> neighbors = new ArrayList<>();
+        for (Connection conn : getConnectionsFrom(nodeId)) {
+            if (conn.getToNode().isActive()) {
+                neighbors.add(conn.getToNode().getId());
+            }
+        }
+        for (Connection conn : getConnectionsTo(nodeId)) {
+            if (conn.getFromNode().isActive()) {
+                neighbors.add(conn.getFromNode().getId());
+            }
+        }
+        return neighbors;
+    }
+    
     /**
      * Analiza el impacto de una falla de conexión
      */
@@ -1,6 +1,7 @@
 package main.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -20,6 +21,13 @@ public class NodoArbol {
         this.depth = 0;
     }
     
+    /**
+     * Para subclases que guardan nodo, latencia e hijos por su cuenta (como las
+     * vistas de RouteTree): no asigna la lista de hijos y debe sobrescribir los getters
+     */
+    protected NodoArbol() {
+    }
+    
     // Getters y setters
     public Node getNode() { return node; }
     public void setNode(Node node) { this.node = node; }
@@ -59,10 +67,12 @@ public class NodoArbol {
         List<NodoArbol> path = new ArrayList<>();
         NodoArbol current = this;
         
+        // Agregar al final e invertir una vez: O(d) en lugar de insertar al inicio
         while (current != null) {
-            path.add(0, current);
+            path.add(current);
             current = current.getParent();
         }
+        Collections.reverse(path);
         
         return path;
     }
@@ -171,6 +181,6 @@ public class NodoArbol {
     
     @Override
     public String toString() {
-        return node.getName() + " (" + latency + "ms)";
+        return getNode().getName() + " (" + getLatency() + "ms)";
     }
 } 
\ No newline at end of file
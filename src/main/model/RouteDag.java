@@ -0,0 +1,265 @@
+package main.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Árbol de rutas comprimido como DAG: los subárboles idénticos (mismo nodo y
+ * mismos hijos en el mismo orden) se guardan una sola vez. La memoria crece con
+ * la estructura distinta y no con el número de rutas. Cada nodo guarda el número
+ * de rutas que cuelgan de él y la latencia mínima, máxima y sumada hasta sus
+ * hojas, así que las estadísticas no requieren expandir el árbol
+ */
+public class RouteDag {
+    private static final int INITIAL_CAPACITY = 16;
+    
+    private final GraphSnapshot graph;
+    private int size;
+    private int edgeCount;
+    private int root = -1;
+    
+    // Campos por nodo distinto; sus hijos ocupan edges[childStart .. childStart + childCount)
+    private int[] nodeIndex;
+    private int[] childStart;
+    private int[] childCount;
+    private long[] pathCount;
+    private long[] treeSize;
+    private int[] minLatency;
+    private int[] maxLatency;
+    private long[] latencySum;
+    
+    // Aristas: nodo hijo y latencia desde el padre
+    private int[] edgeChild;
+    private int[] edgeLatency;
+    
+    // Tabla de consignación: firma del subárbol -> identificador
+    private Map<Signature, Integer> interned;
+    
+    public RouteDag(GraphSnapshot graph) {
+        this.graph = graph;
+        nodeIndex = new int[INITIAL_CAPACITY];
+        childStart = new int[INITIAL_CAPACITY];
+        childCount = new int[INITIAL_CAPACITY];
+        pathCount = new long[INITIAL_CAPACITY];
+        treeSize = new long[INITIAL_CAPACITY];
+        minLatency = new int[INITIAL_CAPACITY];
+        maxLatency = new int[INITIAL_CAPACITY];
+        latencySum = new long[INITIAL_CAPACITY];
+        edgeChild = new int[INITIAL_CAPACITY];
+        edgeLatency = new int[INITIAL_CAPACITY];
+        interned = new HashMap<>();
+    }
+    
+    /**
+     * Devuelve el identificador del subárbol con ese nodo y esos hijos (ya
+     * consignados), creándolo solo si no existe uno idéntico. Sin hijos es una hoja
+     */
+    public int intern(int index, int[] children, int[] latencies, int count) {
+        Signature signature = new Signature(index, Arrays.copyOf(children, count));
+        Integer existing = interned.get(signature);
+        if (existing != null) {
+            return existing;
+        }
+        
+        ensureCapacity(size + 1);
+        ensureEdgeCapacity(edgeCount + count);
+        int id = size++;
+        nodeIndex[id] = index;
+        childStart[id] = edgeCount;
+        childCount[id] = count;
+        
+        if (count == 0) {
+            pathCount[id] = 1;
+            treeSize[id] = 1;
+        } else {
+            long paths = 0;
+            long nodes = 1;
+            int min = Integer.MAX_VALUE;
+            int max = 0;
+            long sum = 0;
+            for (int k = 0; k < count; k++) {
+                int child = children[k];
+                int latency = latencies[k];
+                edgeChild[edgeCount] = child;
+                edgeLatency[edgeCount++] = latency;
+                
+                paths += pathCount[child];
+                nodes += treeSize[child];
+                min = Math.min(min, latency + minLatency[child]);
+                max = Math.max(max, latency + maxLatency[child]);
+                sum += latencySum[child] + (long) latency * pathCount[child];
+            }
+            pathCount[id] = paths;
+            treeSize[id] = nodes;
+            minLatency[id] = min;
+            maxLatency[id] = max;
+            latencySum[id] = sum;
+        }
+        
+        interned.put(signature, id);
+        return id;
+    }
+    
+    /**
+     * Fija la raíz y libera la tabla de consignación
+     */
+    public void setRoot(int id) {
+        this.root = id;
+        this.interned = new HashMap<>();
+    }
+    
+    private void ensureCapacity(int capacity) {
+        if (capacity <= nodeIndex.length) return;
+        int grown = Math.max(capacity, nodeIndex.length + (nodeIndex.length >> 1));
+        nodeIndex = Arrays.copyOf(nodeIndex, grown);
+        childStart = Arrays.copyOf(childStart, grown);
+        childCount = Arrays.copyOf(childCount, grown);
+        pathCount = Arrays.copyOf(pathCount, grown);
+        treeSize = Arrays.copyOf(treeSize, grown);
+        minLatency = Arrays.copyOf(minLatency, grown);
+        maxLatency = Arrays.copyOf(maxLatency, grown);
+        latencySum = Arrays.copyOf(latencySum, grown);
+    }
+    
+    private void ensureEdgeCapacity(int capacity) {
+        if (capacity <= edgeChild.length) return;
+        int grown = Math.max(capacity, edgeChild.length + (edgeChild.length >> 1));
+        edgeChild = Arrays.copyOf(edgeChild, grown);
+        edgeLatency = Arrays.copyOf(edgeLatency, grown);
+    }
+    
+    public int getRoot() { return root; }
+    
+    /**
+     * Nodos distintos guardados
+     */
+    public int size() { return size; }
+    
+    public int getEdgeCount() { return edgeCount; }
+    
+    public int getNodeIndex(int id) { return nodeIndex[id]; }
+    
+    public Node getNode(int id) { return graph.getNode(nodeIndex[id]); }
+    
+    public int getChildCount(int id) { return childCount[id]; }
+    
+    public int getChild(int id, int k) { return edgeChild[childStart[id] + k]; }
+    
+    /**
+     * Latencia de la arista hacia el k-ésimo hijo
+     */
+    public int getChildLatency(int id, int k) { return edgeLatency[childStart[id] + k]; }
+    
+    public boolean isLeaf(int id) { return childCount[id] == 0; }
+    
+    /**
+     * Rutas (hojas) bajo el nodo; en la raíz, el total de rutas
+     */
+    public long getPathCount(int id) { return pathCount[id]; }
+    
+    public long getPathCount() { return root < 0 ? 0 : pathCount[root]; }
+    
+    /**
+     * Nodos que tendría el árbol sin compartir subárboles
+     */
+    public long getTreeNodeCount() { return root < 0 ? 0 : treeSize[root]; }
+    
+    // Estadísticas de las hojas sin expandir el árbol
+    public int getMinLatency() { return root < 0 ? 0 : minLatency[root]; }
+    public int getMaxLatency() { return root < 0 ? 0 : maxLatency[root]; }
+    
+    public double getAverageLatency() {
+        return getPathCount() == 0 ? 0 : (double) latencySum[root] / pathCount[root];
+    }
+    
+    /**
+     * Memoria de los arreglos del DAG
+     */
+    public long getMemoryBytes() {
+        return (long) nodeIndex.length * (4 * 5 + 8 * 3) + (long) edgeChild.length * 8;
+    }
+    
+    public GraphSnapshot getGraph() { return graph; }
+    
+    /**
+     * Todas las rutas como listas de IDs, en el mismo orden que el árbol expandido
+     */
+    public List<List<Integer>> getAllPaths() {
+        List<List<Integer>> paths = new ArrayList<>();
+        if (root >= 0) {
+            collectPaths(root, new ArrayList<>(), paths);
+        }
+        return paths;
+    }
+    
+    private void collectPaths(int id, List<Integer> current, List<List<Integer>> paths) {
+        current.add(graph.idAt(nodeIndex[id]));
+        if (childCount[id] == 0) {
+            paths.add(new ArrayList<>(current));
+        } else {
+            for (int k = 0; k < childCount[id]; k++) {
+                collectPaths(getChild(id, k), current, paths);
+            }
+        }
+        current.remove(current.size() - 1);
+    }
+    
+    /**
+     * Imprime el árbol expandido con el mismo formato que NodoArbol.printTree
+     */
+    public String printTree() {
+        StringBuilder sb = new StringBuilder();
+        if (root >= 0) {
+            printTreeRecursive(root, 0, 0, "", true, sb);
+        }
+        return sb.toString();
+    }
+    
+    private void printTreeRecursive(int id, int latency, int total, String prefix, boolean isLast, StringBuilder sb) {
+        sb.append(prefix).append(isLast ? "└── " : "├── ");
+        sb.append(getNode(id).getName()).append(" (").append(latency).append("ms)");
+        if (childCount[id] == 0) {
+            sb.append(" [Total: ").append(total).append("ms]");
+        }
+        sb.append("\n");
+        
+        String childPrefix = prefix + (isLast ? "    " : "│   ");
+        for (int k = 0; k < childCount[id]; k++) {
+            int childLatency = getChildLatency(id, k);
+            printTreeRecursive(getChild(id, k), childLatency, total + childLatency,
+                    childPrefix, k == childCount[id] - 1, sb);
+        }
+    }
+    
+    /**
+     * Firma de un subárbol: nodo de la vista e identificadores de sus hijos. Las
+     * latencias no se incluyen porque dependen solo del par de nodos
+     */
+    private static class Signature {
+        private final int index;
+        private final int[] children;
+        private final int hash;
+        
+        Signature(int index, int[] children) {
+            this.index = index;
+            this.children = children;
+            this.hash = 31 * index + Arrays.hashCode(children);
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Signature)) return false;
+            Signature other = (Signature) obj;
+            return index == other.index && Arrays.equals(children, other.children);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
\ No newline at end of file
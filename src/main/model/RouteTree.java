@@ -0,0 +1,302 @@
+package main.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Árbol de rutas compacto guardado como arreglos paralelos (un int por campo y
+ * por nodo) en lugar de un objeto con su lista de hijos por nodo. Los hijos se
+ * enlazan con primer hijo / siguiente hermano y cada nodo guarda su latencia
+ * acumulada, así que la latencia total es O(1) y la ruta desde la raíz O(d).
+ * getRootView ofrece una vista compatible con NodoArbol
+ */
+public class RouteTree {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final String READ_ONLY = "La vista del árbol compacto es de solo lectura";
+    
+    private final GraphSnapshot graph;
+    private int size;
+    
+    // Campos por nodo del árbol; el nodo 0 es la raíz
+    private int[] parent;
+    private int[] firstChild;
+    private int[] lastChild;
+    private int[] nextSibling;
+    private int[] nodeIndex;
+    private int[] totalLatency;
+    private int[] depth;
+    
+    // Vistas NodoArbol creadas bajo demanda
+    private NodoArbol[] views;
+    
+    /**
+     * Árbol con una raíz sobre un índice de la vista. rootLatency es la latencia
+     * de la arista que llega a la raíz (0 para la raíz de un árbol de rutas)
+     */
+    public RouteTree(GraphSnapshot graph, int rootIndex, int rootLatency) {
+        this.graph = graph;
+        parent = new int[INITIAL_CAPACITY];
+        firstChild = new int[INITIAL_CAPACITY];
+        lastChild = new int[INITIAL_CAPACITY];
+        nextSibling = new int[INITIAL_CAPACITY];
+        nodeIndex = new int[INITIAL_CAPACITY];
+        totalLatency = new int[INITIAL_CAPACITY];
+        depth = new int[INITIAL_CAPACITY];
+        
+        append(-1, rootIndex, rootLatency, 0);
+    }
+    
+    /**
+     * Agrega un hijo al final de los hijos de parentId. Devuelve su identificador
+     */
+    public int addChild(int parentId, int childIndex, int latency) {
+        int id = append(parentId, childIndex, totalLatency[parentId] + latency, depth[parentId] + 1);
+        link(parentId, id);
+        return id;
+    }
+    
+    /**
+     * Copia otro árbol como último hijo de parentId, conservando el orden de sus
+     * hijos. Las latencias y profundidades del subárbol son relativas a parentId.
+     * Devuelve el identificador de la raíz copiada
+     */
+    public int attach(int parentId, RouteTree subtree) {
+        int offset = size;
+        ensureCapacity(size + subtree.size);
+        for (int i = 0; i < subtree.size; i++) {
+            int id = offset + i;
+            parent[id] = i == 0 ? parentId : subtree.parent[i] + offset;
+            firstChild[id] = subtree.firstChild[i] < 0 ? -1 : subtree.firstChild[i] + offset;
+            lastChild[id] = subtree.lastChild[i] < 0 ? -1 : subtree.lastChild[i] + offset;
+            nextSibling[id] = subtree.nextSibling[i] < 0 ? -1 : subtree.nextSibling[i] + offset;
+            nodeIndex[id] = subtree.nodeIndex[i];
+            totalLatency[id] = totalLatency[parentId] + subtree.totalLatency[i];
+            depth[id] = depth[parentId] + 1 + subtree.depth[i];
+        }
+        size += subtree.size;
+        link(parentId, offset);
+        return offset;
+    }
+    
+    private int append(int parentId, int index, int total, int level) {
+        ensureCapacity(size + 1);
+        int id = size++;
+        parent[id] = parentId;
+        firstChild[id] = -1;
+        lastChild[id] = -1;
+        nextSibling[id] = -1;
+        nodeIndex[id] = index;
+        totalLatency[id] = total;
+        depth[id] = level;
+        return id;
+    }
+    
+    private void link(int parentId, int child) {
+        if (lastChild[parentId] < 0) {
+            firstChild[parentId] = child;
+        } else {
+            nextSibling[lastChild[parentId]] = child;
+        }
+        lastChild[parentId] = child;
+        views = null;
+    }
+    
+    private void ensureCapacity(int capacity) {
+        if (capacity <= parent.length) return;
+        int grown = Math.max(capacity, parent.length + (parent.length >> 1));
+        parent = Arrays.copyOf(parent, grown);
+        firstChild = Arrays.copyOf(firstChild, grown);
+        lastChild = Arrays.copyOf(lastChild, grown);
+        nextSibling = Arrays.copyOf(nextSibling, grown);
+        nodeIndex = Arrays.copyOf(nodeIndex, grown);
+        totalLatency = Arrays.copyOf(totalLatency, grown);
+        depth = Arrays.copyOf(depth, grown);
+    }
+    
+    /**
+     * Ajusta los arreglos al tamaño final una vez construido el árbol
+     */
+    public void trimToSize() {
+        parent = Arrays.copyOf(parent, size);
+        firstChild = Arrays.copyOf(firstChild, size);
+        lastChild = Arrays.copyOf(lastChild, size);
+        nextSibling = Arrays.copyOf(nextSibling, size);
+        nodeIndex = Arrays.copyOf(nodeIndex, size);
+        totalLatency = Arrays.copyOf(totalLatency, size);
+        depth = Arrays.copyOf(depth, size);
+    }
+    
+    public int size() { return size; }
+    
+    public int getRoot() { return 0; }
+    
+    public int getParent(int id) { return parent[id]; }
+    
+    public int getFirstChild(int id) { return firstChild[id]; }
+    
+    public int getNextSibling(int id) { return nextSibling[id]; }
+    
+    public int getNodeIndex(int id) { return nodeIndex[id]; }
+    
+    public Node getNode(int id) { return graph.getNode(nodeIndex[id]); }
+    
+    public int getDepth(int id) { return depth[id]; }
+    
+    public boolean isLeaf(int id) { return firstChild[id] < 0; }
+    
+    /**
+     * Latencia de la arista desde el padre
+     */
+    public int getLatency(int id) {
+        return id == 0 ? totalLatency[0] : totalLatency[id] - totalLatency[parent[id]];
+    }
+    
+    /**
+     * Latencia acumulada desde la raíz, en O(1)
+     */
+    public int getTotalLatency(int id) { return totalLatency[id]; }
+    
+    public int getChildCount(int id) {
+        int count = 0;
+        for (int child = firstChild[id]; child >= 0; child = nextSibling[child]) {
+            count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Número de hojas, es decir, de rutas completas
+     */
+    public int getLeafCount() {
+        int leaves = 0;
+        for (int id = 0; id < size; id++) {
+            if (firstChild[id] < 0) leaves++;
+        }
+        return leaves;
+    }
+    
+    /**
+     * Índices de la vista desde la raíz hasta el nodo, en O(d)
+     */
+    public int[] getPathFromRoot(int id) {
+        int[] path = new int[depth[id] - depth[0] + 1];
+        for (int i = path.length - 1, current = id; i >= 0; i--, current = parent[current]) {
+            path[i] = nodeIndex[current];
+        }
+        return path;
+    }
+    
+    /**
+     * Memoria ocupada por los arreglos del árbol
+     */
+    public long getMemoryBytes() {
+        return 7L * 4 * parent.length;
+    }
+    
+    public GraphSnapshot getGraph() { return graph; }
+    
+    /**
+     * Vista NodoArbol de la raíz; los nodos de la vista se crean al recorrerla
+     */
+    public NodoArbol getRootView() {
+        return getView(0);
+    }
+    
+    /**
+     * Vista NodoArbol de un nodo del árbol (la misma instancia en cada llamada)
+     */
+    public NodoArbol getView(int id) {
+        if (views == null) {
+            views = new NodoArbol[size];
+        }
+        if (views[id] == null) {
+            views[id] = new View(id);
+        }
+        return views[id];
+    }
+    
+    /**
+     * NodoArbol de solo lectura respaldado por los arreglos del árbol
+     */
+    private class View extends NodoArbol {
+        private final int id;
+        private List<NodoArbol> children;
+        
+        View(int id) {
+            this.id = id;
+        }
+        
+        @Override
+        public Node getNode() { return RouteTree.this.getNode(id); }
+        
+        @Override
+        public int getLatency() { return RouteTree.this.getLatency(id); }
+        
+        @Override
+        public List<NodoArbol> getChildren() {
+            if (children == null) {
+                List<NodoArbol> list = new ArrayList<>(getChildCount(id));
+                for (int child = firstChild[id]; child >= 0; child = nextSibling[child]) {
+                    list.add(getView(child));
+                }
+                children = Collections.unmodifiableList(list);
+            }
+            return children;
+        }
+        
+        @Override
+        public NodoArbol getParent() {
+            return parent[id] < 0 ? null : getView(parent[id]);
+        }
+        
+        @Override
+        public int getDepth() { return depth[id]; }
+        
+        @Override
+        public boolean isLeaf() { return firstChild[id] < 0; }
+        
+        @Override
+        public int getTotalLatency() { return totalLatency[id]; }
+        
+        @Override
+        public List<NodoArbol> getPathFromRoot() {
+            NodoArbol[] path = new NodoArbol[depth[id] - depth[0] + 1];
+            for (int i = path.length - 1, current = id; i >= 0; i--, current = parent[current]) {
+                path[i] = getView(current);
+            }
+            return new ArrayList<>(Arrays.asList(path));
+        }
+        
+        @Override
+        public void addChild(NodoArbol child) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+        
+        @Override
+        public void setNode(Node node) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+        
+        @Override
+        public void setLatency(int latency) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+        
+        @Override
+        public void setChildren(List<NodoArbol> children) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+        
+        @Override
+        public void setParent(NodoArbol parent) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+        
+        @Override
+        public void setDepth(int depth) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+    }
+}
\ No newline at end of file